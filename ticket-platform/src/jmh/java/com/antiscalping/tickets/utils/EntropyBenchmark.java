@@ -0,0 +1,99 @@
+package com.antiscalping.tickets.utils;
+
+import org.openjdk.jmh.annotations.*;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+// Seed throughput at 1, 8 and 64 threads; other counts can be run with -Djmh.args="Entropy -t N"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntropyBenchmark {
+    
+    private static final SecureRandom sharedRandom = new SecureRandom();
+    
+    private EntropyPool pooled;
+    
+    private EntropyPool unpooled;
+    
+    @Setup
+    public void setup() {
+        pooled = new EntropyPool(4096);
+        unpooled = new EntropyPool(0);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        pooled.shutdown();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String sharedSecureRandom1() {
+        return sharedSeed();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String sharedSecureRandom8() {
+        return sharedSeed();
+    }
+    
+    @Benchmark
+    @Threads(64)
+    public String sharedSecureRandom64() {
+        return sharedSeed();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String threadLocalDrbg1() {
+        return unpooled.nextSeed();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String threadLocalDrbg8() {
+        return unpooled.nextSeed();
+    }
+    
+    @Benchmark
+    @Threads(64)
+    public String threadLocalDrbg64() {
+        return unpooled.nextSeed();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public String pooledDrbg1() {
+        return pooled.nextSeed();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String pooledDrbg8() {
+        return pooled.nextSeed();
+    }
+    
+    @Benchmark
+    @Threads(64)
+    public String pooledDrbg64() {
+        return pooled.nextSeed();
+    }
+    
+    // The previous SecurityUtils.generateQRSeed
+    private static String sharedSeed() {
+        byte[] randomBytes = new byte[32];
+        sharedRandom.nextBytes(randomBytes);
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : randomBytes) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) hexString.append('0');
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.antiscalping.tickets.utils;
+
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketNumberBenchmark {
+    
+    private SecurityUtils securityUtils;
+    
+    private TicketNumberGenerator ticketNumberGenerator;
+    
+    @Setup
+    public void setup() {
+        securityUtils = new SecurityUtils();
+        ticketNumberGenerator = new TicketNumberGenerator(1);
+    }
+    
+    @Benchmark
+    public String formatWithRandomUuid() {
+        return securityUtils.generateTicketNumber(42L, (long) (Math.random() * 1000000));
+    }
+    
+    @Benchmark
+    public String blockAllocated() {
+        return ticketNumberGenerator.next();
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String formatWithRandomUuidContended() {
+        return securityUtils.generateTicketNumber(42L, (long) (Math.random() * 1000000));
+    }
+    
+    @Benchmark
+    @Threads(8)
+    public String blockAllocatedContended() {
+        return ticketNumberGenerator.next();
+    }
+}
@@ -2,6 +2,7 @@ package com.antiscalping.tickets.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Info;
 import io.swagger.v3.oas.models.info.Contact;
@@ -22,14 +23,12 @@ public class OpenApiConfig {
                     .name("Support")
                     .email("support@antiscalping.com")))
             .addSecurityItem(new SecurityRequirement().addList("Bearer Authentication"))
-            .getComponents()
+            .components(new Components()
                 .addSecuritySchemes("Bearer Authentication",
                     new SecurityScheme()
                         .type(SecurityScheme.Type.HTTP)
                         .scheme("bearer")
                         .bearerFormat("JWT")
-                        .description("JWT token for authentication"))
-                .and()
-            .getOpenApi();
+                        .description("JWT token for authentication")));
     }
 }
@@ -0,0 +1,65 @@
+package com.antiscalping.tickets.controllers;
+
+import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.QueuePositionDto;
+import com.antiscalping.tickets.services.AdmissionQueueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.security.core.context.SecurityContextHolder;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/queue")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class AdmissionQueueController {
+    
+    @Autowired
+    private AdmissionQueueService admissionQueueService;
+    
+    @PostMapping("/{eventId}/join")
+    public ResponseEntity<ApiResponseDto<QueuePositionDto>> joinQueue(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        QueuePositionDto position = admissionQueueService.join(eventId, userId);
+        
+        ApiResponseDto<QueuePositionDto> response = ApiResponseDto.<QueuePositionDto>builder()
+            .success(true)
+            .message(position.isAdmitted() ? "You may proceed to purchase" : "You are in the waiting room")
+            .data(position)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{eventId}/position")
+    public ResponseEntity<ApiResponseDto<QueuePositionDto>> getPosition(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        QueuePositionDto position = admissionQueueService.getPosition(eventId, userId);
+        
+        ApiResponseDto<QueuePositionDto> response = ApiResponseDto.<QueuePositionDto>builder()
+            .success(true)
+            .message("Queue position retrieved successfully")
+            .data(position)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/position")
+    public ResponseEntity<ApiResponseDto<QueuePositionDto>> getPositionByToken(@RequestParam String token) {
+        QueuePositionDto position = admissionQueueService.getPosition(token);
+        
+        ApiResponseDto<QueuePositionDto> response = ApiResponseDto.<QueuePositionDto>builder()
+            .success(true)
+            .message("Queue position retrieved successfully")
+            .data(position)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPosition(@RequestParam String token) {
+        return admissionQueueService.subscribe(token);
+    }
+}
@@ -0,0 +1,113 @@
+package com.antiscalping.tickets.controllers;
+
+import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.AuditLogDto;
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.services.AuditExportService;
+import com.antiscalping.tickets.services.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.security.core.context.SecurityContextHolder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/audit")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class AuditController {
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private AuditExportService auditExportService;
+    
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AuditLogDto>>> getMyAuditLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        CursorPageDto<AuditLogDto> page = auditService.getUserAuditLogs(userId, from, to, cursor, limit);
+        
+        ApiResponseDto<CursorPageDto<AuditLogDto>> response = ApiResponseDto.<CursorPageDto<AuditLogDto>>builder()
+            .success(true)
+            .message("Audit logs retrieved successfully")
+            .data(page)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/events/{eventId}")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<AuditLogDto>>> getEventAuditLogs(
+            @PathVariable Long eventId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        CursorPageDto<AuditLogDto> page = auditService.getEventAuditLogs(eventId, userId, from, to, cursor, limit);
+        
+        ApiResponseDto<CursorPageDto<AuditLogDto>> response = ApiResponseDto.<CursorPageDto<AuditLogDto>>builder()
+            .success(true)
+            .message("Audit logs retrieved successfully")
+            .data(page)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/me/export")
+    public void exportMyAuditLogs(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        AuditExportService.Format exportFormat = auditExportService.parseFormat(format);
+        
+        OutputStream out = openExport(request, response, exportFormat, "audit-user-" + userId);
+        auditExportService.exportUserLogs(userId, from, to, exportFormat, out);
+        out.close();
+    }
+    
+    @GetMapping("/events/{eventId}/export")
+    public void exportEventAuditLogs(
+            @PathVariable Long eventId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        AuditExportService.Format exportFormat = auditExportService.parseFormat(format);
+        auditExportService.requireOrganizer(eventId, userId);
+        
+        OutputStream out = openExport(request, response, exportFormat, "audit-event-" + eventId);
+        auditExportService.exportEventLogs(eventId, from, to, exportFormat, out);
+        out.close();
+    }
+    
+    // Closed only after a complete export, so a failure part way leaves a gzip stream without its
+    // trailer that clients reject instead of a silently truncated file
+    private OutputStream openExport(HttpServletRequest request, HttpServletResponse response, AuditExportService.Format format,
+                                    String name) throws IOException {
+        response.setContentType(format.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format.extension() + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), 8192);
+        }
+        return response.getOutputStream();
+    }
+}
@@ -5,6 +5,8 @@ import com.antiscalping.tickets.dto.UserLoginDto;
 import com.antiscalping.tickets.dto.UserRegistrationDto;
 import com.antiscalping.tickets.dto.AuthResponseDto;
 import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.services.TokenRevocationService;
 import com.antiscalping.tickets.services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,6 +24,9 @@ public class AuthController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     @PostMapping("/register")
     public ResponseEntity<ApiResponseDto<UserDto>> register(@Valid @RequestBody UserRegistrationDto registrationDto) {
         try {
@@ -61,4 +66,18 @@ public class AuthController {
             throw new RuntimeException(e);
         }
     }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponseDto<String>> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            throw new BadRequestException("Bearer token is required");
+        }
+        tokenRevocationService.revokeToken(authorization.substring(7));
+        
+        ApiResponseDto<String> response = ApiResponseDto.<String>builder()
+            .success(true)
+            .message("Logged out successfully")
+            .build();
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,9 +1,17 @@
 package com.antiscalping.tickets.controllers;
 
+import com.antiscalping.tickets.dto.CursorPageDto;
 import com.antiscalping.tickets.dto.EventCreateDto;
 import com.antiscalping.tickets.dto.EventDto;
 import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.GateKeysDto;
+import com.antiscalping.tickets.dto.SeatDto;
+import com.antiscalping.tickets.dto.SeatMapDto;
+import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.services.EventService;
+import com.antiscalping.tickets.services.SeatMapService;
+import com.antiscalping.tickets.services.TicketQrService;
+import com.antiscalping.tickets.utils.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -22,6 +30,15 @@ public class EventController {
     @Autowired
     private EventService eventService;
     
+    @Autowired
+    private SeatMapService seatMapService;
+    
+    @Autowired
+    private TicketQrService ticketQrService;
+    
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
     @PostMapping
     public ResponseEntity<ApiResponseDto<EventDto>> createEvent(@Valid @RequestBody EventCreateDto eventCreateDto) {
         try {
@@ -41,23 +58,27 @@ public class EventController {
     }
     
     @GetMapping
-    public ResponseEntity<ApiResponseDto<List<EventDto>>> getAllEvents() {
-        List<EventDto> events = eventService.getAllEvents();
-        ApiResponseDto<List<EventDto>> response = ApiResponseDto.<List<EventDto>>builder()
+    public ResponseEntity<ApiResponseDto<CursorPageDto<?>>> getAllEvents(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer limit,
+                                                                       @RequestParam(required = false) String fields) {
+        CursorPageDto<EventDto> events = eventService.getAllEvents(cursor, limit);
+        ApiResponseDto<CursorPageDto<?>> response = ApiResponseDto.<CursorPageDto<?>>builder()
             .success(true)
             .message("Events retrieved successfully")
-            .data(events)
+            .data(keysetPaging.selectFields(events, fields, EventDto.class))
             .build();
         return ResponseEntity.ok(response);
     }
     
     @GetMapping("/upcoming")
-    public ResponseEntity<ApiResponseDto<List<EventDto>>> getUpcomingEvents() {
-        List<EventDto> events = eventService.getUpcomingEvents();
-        ApiResponseDto<List<EventDto>> response = ApiResponseDto.<List<EventDto>>builder()
+    public ResponseEntity<ApiResponseDto<CursorPageDto<?>>> getUpcomingEvents(@RequestParam(required = false) String cursor,
+                                                                            @RequestParam(required = false) Integer limit,
+                                                                            @RequestParam(required = false) String fields) {
+        CursorPageDto<EventDto> events = eventService.getUpcomingEvents(cursor, limit);
+        ApiResponseDto<CursorPageDto<?>> response = ApiResponseDto.<CursorPageDto<?>>builder()
             .success(true)
             .message("Upcoming events retrieved successfully")
-            .data(events)
+            .data(keysetPaging.selectFields(events, fields, EventDto.class))
             .build();
         return ResponseEntity.ok(response);
     }
@@ -73,6 +94,30 @@ public class EventController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponseDto<List<EventDto>>> searchEvents(@RequestParam String q,
+                                                                     @RequestParam(required = false) Integer limit) {
+        List<EventDto> events = eventService.searchEvents(q, limit);
+        ApiResponseDto<List<EventDto>> response = ApiResponseDto.<List<EventDto>>builder()
+            .success(true)
+            .message("Events found")
+            .data(events)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/search/suggest")
+    public ResponseEntity<ApiResponseDto<List<String>>> suggestEvents(@RequestParam String prefix,
+                                                                    @RequestParam(required = false) Integer limit) {
+        List<String> suggestions = eventService.suggestEvents(prefix, limit);
+        ApiResponseDto<List<String>> response = ApiResponseDto.<List<String>>builder()
+            .success(true)
+            .message("Suggestions found")
+            .data(suggestions)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/search/venue")
     public ResponseEntity<ApiResponseDto<List<EventDto>>> searchByVenue(@RequestParam String venue) {
         List<EventDto> events = eventService.searchEventsByVenue(venue);
@@ -83,4 +128,68 @@ public class EventController {
             .build();
         return ResponseEntity.ok(response);
     }
+    
+    @PostMapping("/{eventId}/seat-map")
+    public ResponseEntity<ApiResponseDto<SeatMapDto>> defineSeatMap(@PathVariable Long eventId, @Valid @RequestBody SeatMapDto seatMapDto) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        SeatMapDto seatMap = seatMapService.defineSeatMap(eventId, userId, seatMapDto);
+        
+        ApiResponseDto<SeatMapDto> response = ApiResponseDto.<SeatMapDto>builder()
+            .success(true)
+            .message("Seat map defined successfully")
+            .data(seatMap)
+            .build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{eventId}/seat-map")
+    public ResponseEntity<ApiResponseDto<SeatMapDto>> getSeatMap(@PathVariable Long eventId) {
+        SeatMapDto seatMap = seatMapService.getSeatMap(eventId);
+        ApiResponseDto<SeatMapDto> response = ApiResponseDto.<SeatMapDto>builder()
+            .success(true)
+            .message("Seat map retrieved successfully")
+            .data(seatMap)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{eventId}/seats/best-available")
+    public ResponseEntity<ApiResponseDto<List<SeatDto>>> findBestAvailableSeats(@PathVariable Long eventId, @RequestParam(defaultValue = "1") int quantity) {
+        if (quantity < 1 || quantity > 10) {
+            throw new BadRequestException("Quantity must be between 1 and 10");
+        }
+        List<SeatDto> seats = seatMapService.findBestAvailable(eventId, quantity);
+        ApiResponseDto<List<SeatDto>> response = ApiResponseDto.<List<SeatDto>>builder()
+            .success(true)
+            .message("Best available seats found")
+            .data(seats)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{eventId}/gate-keys")
+    public ResponseEntity<ApiResponseDto<GateKeysDto>> getGateKeys(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateKeysDto keys = ticketQrService.getGateKeys(eventId, userId);
+        
+        ApiResponseDto<GateKeysDto> response = ApiResponseDto.<GateKeysDto>builder()
+            .success(true)
+            .message("Gate keys retrieved successfully")
+            .data(keys)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{eventId}/qr/prewarm")
+    public ResponseEntity<ApiResponseDto<Integer>> prewarmQrCodes(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        int queued = ticketQrService.prewarm(eventId, userId);
+        
+        ApiResponseDto<Integer> response = ApiResponseDto.<Integer>builder()
+            .success(true)
+            .message("QR pre-rendering started")
+            .data(queued)
+            .build();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
 }
@@ -0,0 +1,94 @@
+package com.antiscalping.tickets.controllers;
+
+import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.GateEntryDto;
+import com.antiscalping.tickets.dto.GateScanDto;
+import com.antiscalping.tickets.dto.GateSyncDto;
+import com.antiscalping.tickets.services.GateSyncService;
+import com.antiscalping.tickets.services.GateValidationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.security.core.context.SecurityContextHolder;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/events/{eventId}/entry")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class GateController {
+    
+    @Autowired
+    private GateValidationService gateValidationService;
+    
+    @Autowired
+    private GateSyncService gateSyncService;
+    
+    @PostMapping("/open")
+    public ResponseEntity<ApiResponseDto<GateEntryDto>> openEntry(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateEntryDto entry = gateValidationService.openEntry(eventId, userId);
+        
+        ApiResponseDto<GateEntryDto> response = ApiResponseDto.<GateEntryDto>builder()
+            .success(true)
+            .message("Entry is open")
+            .data(entry)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/close")
+    public ResponseEntity<ApiResponseDto<GateEntryDto>> closeEntry(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateEntryDto entry = gateValidationService.closeEntry(eventId, userId);
+        
+        ApiResponseDto<GateEntryDto> response = ApiResponseDto.<GateEntryDto>builder()
+            .success(true)
+            .message("Entry is closed")
+            .data(entry)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping
+    public ResponseEntity<ApiResponseDto<GateEntryDto>> getEntryStatus(@PathVariable Long eventId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateEntryDto entry = gateValidationService.getEntryStatus(eventId, userId);
+        
+        ApiResponseDto<GateEntryDto> response = ApiResponseDto.<GateEntryDto>builder()
+            .success(true)
+            .message("Entry status retrieved successfully")
+            .data(entry)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/scan")
+    public ResponseEntity<ApiResponseDto<GateScanDto>> scan(@PathVariable Long eventId, @RequestBody GateScanDto scanDto) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateScanDto result = gateValidationService.scan(eventId, userId, scanDto);
+        
+        ApiResponseDto<GateScanDto> response = ApiResponseDto.<GateScanDto>builder()
+            .success(result.getAdmitted())
+            .message(result.getAdmitted() ? "Admitted" : "Entry denied: " + result.getResult())
+            .data(result)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    // Body is a JSON array of scan records, read as a stream rather than bound up front
+    @PostMapping(value = "/sync", consumes = "application/json")
+    public ResponseEntity<ApiResponseDto<GateSyncDto>> syncScans(@PathVariable Long eventId, HttpServletRequest request) throws IOException {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        GateSyncDto sync = gateSyncService.sync(eventId, userId, request.getInputStream());
+        
+        ApiResponseDto<GateSyncDto> response = ApiResponseDto.<GateSyncDto>builder()
+            .success(true)
+            .message("Synced " + sync.getReceived() + " scans")
+            .data(sync)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,10 +1,17 @@
 package com.antiscalping.tickets.controllers;
 
+import com.antiscalping.tickets.dto.CursorPageDto;
 import com.antiscalping.tickets.dto.TicketDto;
 import com.antiscalping.tickets.dto.TicketPurchaseDto;
 import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.QrVerificationDto;
+import com.antiscalping.tickets.dto.TicketQrDto;
 import com.antiscalping.tickets.services.TicketService;
 import com.antiscalping.tickets.services.FraudDetectionService;
+import com.antiscalping.tickets.services.AdmissionQueueService;
+import com.antiscalping.tickets.services.PurchaseCoalescer;
+import com.antiscalping.tickets.services.TicketQrService;
+import com.antiscalping.tickets.utils.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,15 +33,33 @@ public class TicketController {
     @Autowired
     private FraudDetectionService fraudDetectionService;
     
+    @Autowired
+    private AdmissionQueueService admissionQueueService;
+    
+    @Autowired
+    private PurchaseCoalescer purchaseCoalescer;
+    
+    @Autowired
+    private TicketQrService ticketQrService;
+    
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
     @PostMapping("/purchase")
     public ResponseEntity<ApiResponseDto<List<TicketDto>>> purchaseTickets(@Valid @RequestBody TicketPurchaseDto purchaseDto) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        
+        // Waiting room check happens before any database work
+        admissionQueueService.requireAdmission(purchaseDto.getEventId(), userId);
+        
         try {
-            Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
-            
             // Fraud check
             fraudDetectionService.validatePurchaseVelocity(userId);
             
-            List<TicketDto> tickets = ticketService.purchaseTickets(userId, purchaseDto);
+            List<TicketDto> tickets = purchaseCoalescer.isEnabled()
+                ? purchaseCoalescer.purchase(userId, purchaseDto)
+                : ticketService.purchaseTickets(userId, purchaseDto);
+            admissionQueueService.complete(purchaseDto.getEventId(), userId);
             
             ApiResponseDto<List<TicketDto>> response = ApiResponseDto.<List<TicketDto>>builder()
                 .success(true)
@@ -49,14 +74,16 @@ public class TicketController {
     }
     
     @GetMapping("/my-tickets")
-    public ResponseEntity<ApiResponseDto<List<TicketDto>>> getMyTickets() {
+    public ResponseEntity<ApiResponseDto<CursorPageDto<?>>> getMyTickets(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(required = false) Integer limit,
+                                                                       @RequestParam(required = false) String fields) {
         Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
-        List<TicketDto> tickets = ticketService.getMyTickets(userId);
+        CursorPageDto<TicketDto> tickets = ticketService.getMyTickets(userId, cursor, limit);
         
-        ApiResponseDto<List<TicketDto>> response = ApiResponseDto.<List<TicketDto>>builder()
+        ApiResponseDto<CursorPageDto<?>> response = ApiResponseDto.<CursorPageDto<?>>builder()
             .success(true)
             .message("Tickets retrieved successfully")
-            .data(tickets)
+            .data(keysetPaging.selectFields(tickets, fields, TicketDto.class))
             .build();
         return ResponseEntity.ok(response);
     }
@@ -73,6 +100,45 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
     
+    @GetMapping("/my-tickets/qr")
+    public ResponseEntity<ApiResponseDto<List<TicketQrDto>>> getMyTicketQrs(@RequestParam(defaultValue = "png") String format) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        List<TicketQrDto> qrs = ticketQrService.getWalletQrs(userId, format);
+        
+        ApiResponseDto<List<TicketQrDto>> response = ApiResponseDto.<List<TicketQrDto>>builder()
+            .success(true)
+            .message("QR codes generated successfully")
+            .data(qrs)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/{ticketId}/qr")
+    public ResponseEntity<ApiResponseDto<TicketQrDto>> getTicketQr(@PathVariable Long ticketId,
+                                                                    @RequestParam(defaultValue = "png") String format) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        TicketQrDto qr = ticketQrService.getTicketQr(ticketId, userId, format);
+        
+        ApiResponseDto<TicketQrDto> response = ApiResponseDto.<TicketQrDto>builder()
+            .success(true)
+            .message("QR code generated successfully")
+            .data(qr)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/qr/verify")
+    public ResponseEntity<ApiResponseDto<QrVerificationDto>> verifyQr(@Valid @RequestBody QrVerificationDto verificationDto) {
+        QrVerificationDto result = ticketQrService.verifyPayload(verificationDto.getPayload(), verificationDto.getEventId());
+        
+        ApiResponseDto<QrVerificationDto> response = ApiResponseDto.<QrVerificationDto>builder()
+            .success(result.getValid())
+            .message(result.getValid() ? "QR code is valid" : "QR code rejected: " + result.getStatus())
+            .data(result)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
     @PostMapping("/{ticketId}/validate")
     public ResponseEntity<ApiResponseDto<String>> validateTicket(@PathVariable Long ticketId) {
         Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
@@ -0,0 +1,102 @@
+package com.antiscalping.tickets.controllers;
+
+import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.HoldConfirmDto;
+import com.antiscalping.tickets.dto.TicketDto;
+import com.antiscalping.tickets.dto.TicketHoldDto;
+import com.antiscalping.tickets.dto.TicketHoldRequestDto;
+import com.antiscalping.tickets.entities.Payment;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.services.AdmissionQueueService;
+import com.antiscalping.tickets.services.FraudDetectionService;
+import com.antiscalping.tickets.services.TicketHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.security.core.context.SecurityContextHolder;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import java.util.List;
+
+@RestController
+@RequestMapping("/holds")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class TicketHoldController {
+    
+    @Autowired
+    private TicketHoldService ticketHoldService;
+    
+    @Autowired
+    private FraudDetectionService fraudDetectionService;
+    
+    @Autowired
+    private AdmissionQueueService admissionQueueService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponseDto<TicketHoldDto>> createHold(@Valid @RequestBody TicketHoldRequestDto holdDto) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        
+        admissionQueueService.requireAdmission(holdDto.getEventId(), userId);
+        fraudDetectionService.validatePurchaseVelocity(userId);
+        
+        TicketHoldDto hold = ticketHoldService.createHold(userId, holdDto);
+        
+        ApiResponseDto<TicketHoldDto> response = ApiResponseDto.<TicketHoldDto>builder()
+            .success(true)
+            .message("Tickets held until " + hold.getExpiresAt())
+            .data(hold)
+            .build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @GetMapping("/{holdId}")
+    public ResponseEntity<ApiResponseDto<TicketHoldDto>> getHold(@PathVariable Long holdId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        TicketHoldDto hold = ticketHoldService.getHold(holdId, userId);
+        
+        ApiResponseDto<TicketHoldDto> response = ApiResponseDto.<TicketHoldDto>builder()
+            .success(true)
+            .message("Hold retrieved successfully")
+            .data(hold)
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/{holdId}/confirm")
+    public ResponseEntity<ApiResponseDto<List<TicketDto>>> confirmHold(@PathVariable Long holdId, @Valid @RequestBody HoldConfirmDto confirmDto) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        
+        Payment.PaymentGateway gateway;
+        try {
+            gateway = Payment.PaymentGateway.valueOf(confirmDto.getGateway().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported payment gateway: " + confirmDto.getGateway());
+        }
+        
+        TicketHoldDto hold = ticketHoldService.getHold(holdId, userId);
+        List<TicketDto> tickets = ticketHoldService.confirmHold(holdId, userId, gateway);
+        admissionQueueService.complete(hold.getEventId(), userId);
+        
+        ApiResponseDto<List<TicketDto>> response = ApiResponseDto.<List<TicketDto>>builder()
+            .success(true)
+            .message("Tickets purchased successfully")
+            .data(tickets)
+            .build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    @PostMapping("/{holdId}/release")
+    public ResponseEntity<ApiResponseDto<String>> releaseHold(@PathVariable Long holdId) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        ticketHoldService.releaseHold(holdId, userId);
+        
+        ApiResponseDto<String> response = ApiResponseDto.<String>builder()
+            .success(true)
+            .message("Hold released successfully")
+            .data("Tickets returned to inventory")
+            .build();
+        return ResponseEntity.ok(response);
+    }
+}
@@ -2,9 +2,12 @@ package com.antiscalping.tickets.controllers;
 
 import com.antiscalping.tickets.dto.TicketTransferDto;
 import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.dto.TransferSummaryDto;
 import com.antiscalping.tickets.entities.TicketTransfer;
 import com.antiscalping.tickets.services.TicketTransferService;
 import com.antiscalping.tickets.services.FraudDetectionService;
+import com.antiscalping.tickets.utils.KeysetPaging;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +28,9 @@ public class TicketTransferController {
     @Autowired
     private FraudDetectionService fraudDetectionService;
     
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
     @PostMapping("/create")
     public ResponseEntity<ApiResponseDto<String>> initiateTransfer(@Valid @RequestBody TicketTransferDto transferDto) {
         try {
@@ -84,4 +90,34 @@ public class TicketTransferController {
             .build();
         return ResponseEntity.ok(response);
     }
+    
+    @GetMapping("/sent")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<?>>> getSentTransfers(@RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer limit,
+                                                                           @RequestParam(required = false) String fields) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        CursorPageDto<TransferSummaryDto> transfers = transferService.getSentTransfers(userId, cursor, limit);
+        
+        ApiResponseDto<CursorPageDto<?>> response = ApiResponseDto.<CursorPageDto<?>>builder()
+            .success(true)
+            .message("Transfers retrieved successfully")
+            .data(keysetPaging.selectFields(transfers, fields, TransferSummaryDto.class))
+            .build();
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/received")
+    public ResponseEntity<ApiResponseDto<CursorPageDto<?>>> getReceivedTransfers(@RequestParam(required = false) String cursor,
+                                                                               @RequestParam(required = false) Integer limit,
+                                                                               @RequestParam(required = false) String fields) {
+        Long userId = Long.parseLong(SecurityContextHolder.getContext().getAuthentication().getPrincipal().toString());
+        CursorPageDto<TransferSummaryDto> transfers = transferService.getReceivedTransfers(userId, cursor, limit);
+        
+        ApiResponseDto<CursorPageDto<?>> response = ApiResponseDto.<CursorPageDto<?>>builder()
+            .success(true)
+            .message("Transfers retrieved successfully")
+            .data(keysetPaging.selectFields(transfers, fields, TransferSummaryDto.class))
+            .build();
+        return ResponseEntity.ok(response);
+    }
 }
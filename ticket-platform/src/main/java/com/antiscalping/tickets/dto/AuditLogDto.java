@@ -0,0 +1,27 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AuditLogDto {
+    
+    private Long id;
+    
+    private Long userId;
+    
+    private String action;
+    
+    private String entityType;
+    
+    private Long entityId;
+    
+    private String details;
+    
+    private String ipAddress;
+    
+    private LocalDateTime createdAt;
+}
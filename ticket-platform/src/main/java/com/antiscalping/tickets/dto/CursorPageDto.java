@@ -0,0 +1,16 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDto<T> {
+    
+    private List<T> items;
+    
+    // Null on the last page
+    private String nextCursor;
+}
@@ -26,6 +26,8 @@ public class EventDto {
     @Min(value = 1, message = "Capacity must be at least 1")
     private Integer totalCapacity;
     
+    // Live from the inventory store on the event detail; listing and search pages read the events row,
+    // which trails it by up to app.inventory.reconcile-interval-ms (this also applies to soldTickets)
     private Integer availableTickets;
     
     @NotNull(message = "Ticket price is required")
@@ -35,4 +37,7 @@ public class EventDto {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    
+    // Issued plus held in checkout
+    private Integer soldTickets;
 }
@@ -0,0 +1,23 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GateEntryDto {
+    
+    private Long eventId;
+    
+    private Boolean open;
+    
+    private Integer tickets;
+    
+    private Integer scanned;
+    
+    private Integer pendingWrites;
+    
+    private LocalDateTime openedAt;
+}
@@ -0,0 +1,16 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GateKeysDto {
+    private Long eventId;
+    private String algorithm;
+    // Base64url X.509 public key; verifies codes but cannot sign them
+    private String publicKey;
+    private Long rotationSeconds;
+    private Integer acceptedPastEpochs;
+}
@@ -0,0 +1,21 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GateScanDto {
+    
+    // Either the signed QR payload or the printed ticket number
+    private String payload;
+    
+    private String ticketNumber;
+    
+    private Long ticketId;
+    
+    private Boolean admitted;
+    
+    private String result;
+}
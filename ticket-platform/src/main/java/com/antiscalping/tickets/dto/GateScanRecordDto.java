@@ -0,0 +1,25 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GateScanRecordDto {
+    
+    private String ticketNumber;
+    
+    private String gate;
+    
+    // Device clock at the time of the scan
+    private LocalDateTime scannedAt;
+    
+    private Long ticketId;
+    
+    private String result;
+    
+    // Device time of the scan that won entry for this ticket
+    private LocalDateTime admittedAt;
+}
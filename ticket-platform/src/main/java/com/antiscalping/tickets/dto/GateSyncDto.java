@@ -0,0 +1,24 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GateSyncDto {
+    
+    private Long eventId;
+    
+    private Integer received;
+    
+    private Integer admitted;
+    
+    private Integer duplicates;
+    
+    private Integer rejected;
+    
+    // In the same order as the submitted records
+    private List<GateScanRecordDto> results;
+}
@@ -0,0 +1,14 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldConfirmDto {
+    
+    @NotBlank(message = "Payment gateway is required")
+    private String gateway;
+}
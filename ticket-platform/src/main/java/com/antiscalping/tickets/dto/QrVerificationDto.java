@@ -0,0 +1,22 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QrVerificationDto {
+    
+    @NotBlank(message = "QR payload is required")
+    private String payload;
+    
+    private Long eventId;
+    
+    private Long ticketId;
+    
+    private Boolean valid;
+    
+    private String status;
+}
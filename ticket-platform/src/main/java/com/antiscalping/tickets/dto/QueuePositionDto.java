@@ -0,0 +1,15 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueuePositionDto {
+    private Long eventId;
+    private String token;
+    private boolean admitted;
+    private Long position;
+    private Long estimatedWaitSeconds;
+}
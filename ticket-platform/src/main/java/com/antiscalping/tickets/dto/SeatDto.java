@@ -0,0 +1,13 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatDto {
+    private String section;
+    private String rowLabel;
+    private Integer seatNumber;
+}
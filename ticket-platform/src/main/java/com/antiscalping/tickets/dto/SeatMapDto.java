@@ -0,0 +1,22 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatMapDto {
+    
+    private Long eventId;
+    
+    // Rows in best-first order
+    @NotEmpty(message = "At least one row is required")
+    @Valid
+    private List<SeatRowDto> rows;
+    
+    private Integer available;
+}
@@ -0,0 +1,25 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import jakarta.validation.constraints.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeatRowDto {
+    
+    @NotBlank(message = "Section is required")
+    @Size(max = 50, message = "Section must be at most 50 characters")
+    private String section;
+    
+    @NotBlank(message = "Row label is required")
+    @Size(max = 20, message = "Row label must be at most 20 characters")
+    private String rowLabel;
+    
+    @NotNull(message = "Seat count is required")
+    @Min(value = 1, message = "A row needs at least one seat")
+    private Integer seatCount;
+    
+    private Integer available;
+}
@@ -14,6 +14,9 @@ public class TicketDto {
     private Long userId;
     private String ticketNumber;
     private String status;
+    private String section;
+    private String rowLabel;
+    private Integer seatNumber;
     private Integer transferCount;
     private LocalDateTime purchasedAt;
     private LocalDateTime validatedAt;
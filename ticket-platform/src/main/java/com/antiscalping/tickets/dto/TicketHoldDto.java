@@ -0,0 +1,18 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketHoldDto {
+    private Long id;
+    private Long eventId;
+    private Integer quantity;
+    private Double amount;
+    private String status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
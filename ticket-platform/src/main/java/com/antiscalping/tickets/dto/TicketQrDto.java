@@ -0,0 +1,18 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TicketQrDto {
+    private Long ticketId;
+    private String ticketNumber;
+    private String payload;
+    private String format;
+    private String qrCode;
+    private Integer moduleCount;
+    private LocalDateTime refreshAfter;
+}
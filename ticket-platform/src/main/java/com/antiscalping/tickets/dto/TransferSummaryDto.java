@@ -0,0 +1,33 @@
+package com.antiscalping.tickets.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferSummaryDto {
+    
+    private Long id;
+    
+    private Long ticketId;
+    
+    private Long fromUserId;
+    
+    private Long toUserId;
+    
+    private String transferType;
+    
+    private String status;
+    
+    private Double transferPrice;
+    
+    private LocalDateTime requestedAt;
+    
+    private LocalDateTime approvedAt;
+    
+    private LocalDateTime completedAt;
+    
+    private LocalDateTime createdAt;
+}
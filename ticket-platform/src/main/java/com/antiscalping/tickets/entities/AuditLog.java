@@ -6,8 +6,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "audit_logs", indexes = {
-    @Index(name = "idx_user_id_audit", columnList = "user_id"),
-    @Index(name = "idx_action", columnList = "action"),
+    @Index(name = "idx_user_id_audit", columnList = "user_id, created_at DESC, id DESC"),
+    @Index(name = "idx_action", columnList = "action, created_at DESC, id DESC"),
+    @Index(name = "idx_entity_audit", columnList = "entity_type, entity_id, created_at DESC, id DESC"),
     @Index(name = "idx_created_at_audit", columnList = "created_at")
 })
 @Data
@@ -17,7 +18,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_logs_seq")
+    @SequenceGenerator(name = "audit_logs_seq", sequenceName = "audit_logs_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -37,6 +39,8 @@ public class AuditLog {
     
     private String ipAddress;
     
+    // Partition key of audit_logs
+    @Column(nullable = false)
     private LocalDateTime createdAt;
     
     @PrePersist
@@ -0,0 +1,33 @@
+package com.antiscalping.tickets.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+
+@Entity
+@Table(name = "event_inventory_buckets")
+@IdClass(EventInventoryBucket.BucketId.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventInventoryBucket {
+    
+    @Id
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Id
+    private Integer bucket;
+    
+    @Column(nullable = false)
+    private Integer available;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BucketId implements Serializable {
+        private Long eventId;
+        private Integer bucket;
+    }
+}
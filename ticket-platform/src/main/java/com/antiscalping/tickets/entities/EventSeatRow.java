@@ -0,0 +1,33 @@
+package com.antiscalping.tickets.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "event_seat_rows")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EventSeatRow {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+    
+    @Column(nullable = false)
+    private String section;
+    
+    @Column(nullable = false)
+    private String rowLabel;
+    
+    @Column(nullable = false)
+    private Integer seatCount;
+    
+    // Lower rank is a better row; best-available search walks rows in rank order
+    @Column(nullable = false)
+    private Integer rank;
+}
@@ -16,7 +16,8 @@ import java.time.LocalDateTime;
 public class PoolTicket {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pool_tickets_seq")
+    @SequenceGenerator(name = "pool_tickets_seq", sequenceName = "pool_tickets_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
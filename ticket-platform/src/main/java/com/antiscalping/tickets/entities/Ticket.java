@@ -7,7 +7,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "tickets", indexes = {
     @Index(name = "idx_event_id", columnList = "event_id"),
-    @Index(name = "idx_owner_id", columnList = "owner_id"),
+    @Index(name = "idx_tickets_owner_purchased", columnList = "owner_id, purchased_at DESC, id DESC"),
     @Index(name = "idx_status", columnList = "status"),
     @Index(name = "idx_qr_seed", columnList = "qr_seed")
 })
@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class Ticket {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tickets_seq")
+    @SequenceGenerator(name = "tickets_seq", sequenceName = "tickets_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -26,7 +27,7 @@ public class Ticket {
     private Event event;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "owner_id", nullable = false)
+    @JoinColumn(name = "owner_id")
     private User user;
     
     @Enumerated(EnumType.STRING)
@@ -51,6 +52,12 @@ public class Ticket {
     
     private Boolean isPooled;
     
+    private String section;
+    
+    private String rowLabel;
+    
+    private Integer seatNumber;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
@@ -59,7 +66,9 @@ public class Ticket {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        status = TicketStatus.AVAILABLE;
+        if (status == null) {
+            status = TicketStatus.AVAILABLE;
+        }
         transferCount = 0;
         isPooled = false;
     }
@@ -70,6 +79,6 @@ public class Ticket {
     }
     
     public enum TicketStatus {
-        AVAILABLE, TRANSFERRED, CLAIMED, VALIDATED, CANCELLED, REFUNDED
+        UNSOLD, AVAILABLE, TRANSFERRED, CLAIMED, VALIDATED, CANCELLED, REFUNDED
     }
 }
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 public class TicketTransfer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_transfers_seq")
+    @SequenceGenerator(name = "ticket_transfers_seq", sequenceName = "ticket_transfers_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,11 @@
+package com.antiscalping.tickets.exceptions;
+
+public class AdmissionRequiredException extends RuntimeException {
+    public AdmissionRequiredException(String message) {
+        super(message);
+    }
+    
+    public AdmissionRequiredException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -6,6 +6,8 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.security.IdempotencyFilter;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 
 @RestControllerAdvice
@@ -56,8 +58,21 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
     }
     
+    @ExceptionHandler(AdmissionRequiredException.class)
+    public ResponseEntity<ApiResponseDto<?>> handleAdmissionRequired(AdmissionRequiredException ex) {
+        log.debug("Admission required: {}", ex.getMessage());
+        ApiResponseDto<?> response = ApiResponseDto.builder()
+            .success(false)
+            .message(ex.getMessage())
+            .error("ADMISSION_REQUIRED")
+            .build();
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ApiResponseDto<?>> handleValidationException(MethodArgumentNotValidException ex) {
+    public ResponseEntity<ApiResponseDto<?>> handleValidationException(MethodArgumentNotValidException ex, HttpServletRequest request) {
+        // The same body fails the same way on retry, so an idempotent replay of this response is safe
+        request.setAttribute(IdempotencyFilter.DETERMINISTIC_REJECTION, true);
         String message = ex.getBindingResult().getFieldErrors()
             .stream()
             .map(error -> error.getField() + ": " + error.getDefaultMessage())
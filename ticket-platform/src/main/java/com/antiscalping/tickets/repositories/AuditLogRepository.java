@@ -1,18 +1,36 @@
 package com.antiscalping.tickets.repositories;
 
+import com.antiscalping.tickets.dto.AuditLogDto;
 import com.antiscalping.tickets.entities.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
-    List<AuditLog> findByUserId(Long userId);
+    String SELECT_DTO = "SELECT new com.antiscalping.tickets.dto.AuditLogDto(a.id, a.user.id, a.action, a.entityType, " +
+        "a.entityId, a.details, a.ipAddress, a.createdAt) FROM AuditLog a ";
     
-    List<AuditLog> findByAction(String action);
+    // Rows in [from, beforeAt) plus rows at beforeAt with a smaller id, newest first; the created_at
+    // bounds let Postgres skip every partition outside the window
+    String KEYSET = "AND a.createdAt >= :from AND a.createdAt <= :beforeAt " +
+        "AND (a.createdAt < :beforeAt OR a.id < :beforeId) ORDER BY a.createdAt DESC, a.id DESC";
     
-    List<AuditLog> findByEntityType(String entityType);
+    @Query(SELECT_DTO + "WHERE a.user.id = :userId " + KEYSET)
+    List<AuditLogDto> findUserPage(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                   @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
     
-    List<AuditLog> findByEntityTypeAndEntityId(String entityType, Long entityId);
+    @Query(SELECT_DTO + "WHERE a.action = :action " + KEYSET)
+    List<AuditLogDto> findActionPage(@Param("action") String action, @Param("from") LocalDateTime from,
+                                     @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") Long beforeId, Pageable page);
+    
+    @Query(SELECT_DTO + "WHERE a.entityType = :entityType AND a.entityId = :entityId " + KEYSET)
+    List<AuditLogDto> findEntityPage(@Param("entityType") String entityType, @Param("entityId") Long entityId,
+                                     @Param("from") LocalDateTime from, @Param("beforeAt") LocalDateTime beforeAt,
+                                     @Param("beforeId") Long beforeId, Pageable page);
 }
@@ -0,0 +1,33 @@
+package com.antiscalping.tickets.repositories;
+
+import com.antiscalping.tickets.entities.EventInventoryBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface EventInventoryBucketRepository extends JpaRepository<EventInventoryBucket, EventInventoryBucket.BucketId> {
+    
+    @Modifying
+    @Query("UPDATE EventInventoryBucket b SET b.available = b.available - :quantity " +
+           "WHERE b.eventId = :eventId AND b.bucket = :bucket AND b.available >= :quantity")
+    int decrement(Long eventId, Integer bucket, Integer quantity);
+    
+    @Modifying
+    @Query("UPDATE EventInventoryBucket b SET b.available = b.available + :quantity " +
+           "WHERE b.eventId = :eventId AND b.bucket = :bucket")
+    int increment(Long eventId, Integer bucket, Integer quantity);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM EventInventoryBucket b WHERE b.eventId = :eventId ORDER BY b.bucket")
+    List<EventInventoryBucket> findByEventIdForUpdate(Long eventId);
+    
+    @Query("SELECT SUM(b.available) FROM EventInventoryBucket b WHERE b.eventId = :eventId")
+    Long sumAvailable(Long eventId);
+    
+    boolean existsByEventId(Long eventId);
+}
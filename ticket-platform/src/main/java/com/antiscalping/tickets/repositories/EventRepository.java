@@ -1,7 +1,10 @@
 package com.antiscalping.tickets.repositories;
 
+import com.antiscalping.tickets.dto.EventDto;
 import com.antiscalping.tickets.entities.Event;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
@@ -9,11 +12,46 @@ import java.util.List;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-    List<Event> findByStatus(String status);
+    
+    // Listings read straight into DTOs: one query per page, no entity hydration, and sold/remaining
+    // come from the availability counter the inventory service keeps on the events row. In the redis and
+    // striped inventory modes that counter is reconciled asynchronously, so listings can lag the event detail
+    String LISTING = "SELECT new com.antiscalping.tickets.dto.EventDto(e.id, e.name, e.description, e.eventDate, e.venue, " +
+        "e.totalCapacity, e.availableTickets, e.ticketPrice, CAST(e.status AS String), e.createdAt, e.updatedAt, " +
+        "e.totalCapacity - e.availableTickets) FROM Event e ";
+    
+    List<Event> findByStatus(Event.EventStatus status);
+    
+    // Rows strictly after (afterDate, afterId) in (eventDate, id) order
+    String AFTER = "AND (e.eventDate > :afterDate OR (e.eventDate = :afterDate AND e.id > :afterId)) " +
+        "ORDER BY e.eventDate ASC, e.id ASC";
+    
+    @Query(LISTING + "WHERE e.status = :status " + AFTER)
+    List<EventDto> findListingByStatus(Event.EventStatus status, LocalDateTime afterDate, Long afterId, Pageable page);
+    
+    @Query(LISTING + "WHERE e.eventDate > :date " + AFTER)
+    List<EventDto> findUpcomingListing(LocalDateTime date, LocalDateTime afterDate, Long afterId, Pageable page);
+    
+    // Search hits are re-checked against the row, since an in-memory index can lag behind it
+    @Query(LISTING + "WHERE e.id IN :ids AND e.status = 'ACTIVE'")
+    List<EventDto> findListingByIds(List<Long> ids);
     
     @Query("SELECT e FROM Event e WHERE e.eventDate > :date ORDER BY e.eventDate ASC")
     List<Event> findUpcomingEvents(LocalDateTime date);
     
-    @Query("SELECT e FROM Event e WHERE e.venue LIKE %:venue% AND e.status = 'ACTIVE'")
-    List<Event> findByVenue(String venue);
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = :availableTickets WHERE e.id = :eventId")
+    int updateAvailableTickets(Long eventId, Integer availableTickets);
+    
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets - :quantity WHERE e.id = :eventId AND e.availableTickets >= :quantity")
+    int decrementAvailableTickets(Long eventId, int quantity);
+    
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets + :quantity " +
+           "WHERE e.id = :eventId AND e.availableTickets + :quantity <= e.totalCapacity")
+    int incrementAvailableTickets(Long eventId, int quantity);
+    
+    @Query("SELECT e.availableTickets FROM Event e WHERE e.id = :eventId")
+    Integer findAvailableTickets(Long eventId);
 }
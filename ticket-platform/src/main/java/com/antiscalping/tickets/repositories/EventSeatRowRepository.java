@@ -0,0 +1,16 @@
+package com.antiscalping.tickets.repositories;
+
+import com.antiscalping.tickets.entities.EventSeatRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface EventSeatRowRepository extends JpaRepository<EventSeatRow, Long> {
+    
+    List<EventSeatRow> findByEventIdOrderByRankAsc(Long eventId);
+    
+    List<EventSeatRow> findAllByOrderByEventIdAscRankAsc();
+    
+    boolean existsByEventId(Long eventId);
+}
@@ -0,0 +1,41 @@
+package com.antiscalping.tickets.repositories;
+
+import com.antiscalping.tickets.entities.TicketHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketHoldRepository extends JpaRepository<TicketHold, Long> {
+    
+    List<TicketHold> findByStatus(TicketHold.HoldStatus status);
+    
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.status = 'CONFIRMING', h.confirmingSince = :now, h.updatedAt = :now " +
+           "WHERE h.id = :holdId AND h.status = 'ACTIVE' AND h.expiresAt > :now")
+    int startConfirming(Long holdId, LocalDateTime now);
+    
+    // Written in the payment's transaction, so a committed payment is always traceable from its hold
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.paymentId = :paymentId, h.updatedAt = CURRENT_TIMESTAMP WHERE h.id = :holdId AND h.status = 'CONFIRMING'")
+    int attachPayment(Long holdId, Long paymentId);
+    
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.status = :to, h.updatedAt = CURRENT_TIMESTAMP WHERE h.id = :holdId AND h.status = :from")
+    int transition(Long holdId, TicketHold.HoldStatus from, TicketHold.HoldStatus to);
+    
+    @Modifying
+    @Query("UPDATE TicketHold h SET h.status = 'CONFIRMED', h.paymentId = :paymentId, h.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE h.id = :holdId AND h.status = 'CONFIRMING'")
+    int markConfirmed(Long holdId, Long paymentId);
+    
+    @Query("SELECT COALESCE(SUM(h.quantity), 0) FROM TicketHold h WHERE h.event.id = :eventId AND h.status IN :statuses")
+    long sumQuantityByEventIdAndStatusIn(Long eventId, Collection<TicketHold.HoldStatus> statuses);
+    
+    @Query("SELECT h.event.id, SUM(h.quantity) FROM TicketHold h WHERE h.status IN :statuses GROUP BY h.event.id")
+    List<Object[]> sumQuantityByStatusInGroupByEvent(Collection<TicketHold.HoldStatus> statuses);
+}
@@ -1,9 +1,13 @@
 package com.antiscalping.tickets.repositories;
 
+import com.antiscalping.tickets.dto.TicketDto;
 import com.antiscalping.tickets.entities.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,10 +16,25 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     
     Optional<Ticket> findByTicketNumber(String ticketNumber);
     
+    // Pre-minted stock has no owner until it is sold and is never visible through ticket lookups
+    @Query("SELECT t FROM Ticket t WHERE t.id = :ticketId AND t.status <> 'UNSOLD' AND t.user IS NOT NULL")
+    Optional<Ticket> findIssuedById(Long ticketId);
+    
+    @Query("SELECT t FROM Ticket t WHERE t.ticketNumber = :ticketNumber AND t.status <> 'UNSOLD' AND t.user IS NOT NULL")
+    Optional<Ticket> findIssuedByTicketNumber(String ticketNumber);
+    
     Optional<Ticket> findByQrSeed(String qrSeed);
     
     List<Ticket> findByUserId(Long userId);
     
+    // Wallet page most recently purchased first, read into DTOs with the event name joined in rather than loaded per ticket
+    @Query("SELECT new com.antiscalping.tickets.dto.TicketDto(t.id, e.id, e.name, t.user.id, t.ticketNumber, " +
+           "CAST(t.status AS String), t.section, t.rowLabel, t.seatNumber, t.transferCount, t.purchasedAt, t.validatedAt, " +
+           "t.createdAt) FROM Ticket t JOIN t.event e WHERE t.user.id = :userId " +
+           "AND (t.purchasedAt < :beforeAt OR (t.purchasedAt = :beforeAt AND t.id < :beforeId)) " +
+           "ORDER BY t.purchasedAt DESC, t.id DESC")
+    List<TicketDto> findWalletPage(Long userId, LocalDateTime beforeAt, Long beforeId, Pageable page);
+    
     List<Ticket> findByUserIdAndStatus(Long userId, String status);
     
     List<Ticket> findByEventId(Long eventId);
@@ -26,4 +45,20 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     long countByEventId(Long eventId);
     
     long countByEventIdAndStatus(Long eventId, String status);
+    
+    @Query(value = "SELECT * FROM tickets WHERE event_id = :eventId AND status = 'UNSOLD' " +
+                   "ORDER BY id LIMIT :quantity FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Ticket> claimStock(Long eventId, int quantity);
+    
+    long countByEventIdAndStatusNotIn(Long eventId, Collection<Ticket.TicketStatus> statuses);
+    
+    @Query("SELECT t.event.id, COUNT(t) FROM Ticket t WHERE t.status NOT IN :statuses GROUP BY t.event.id")
+    List<Object[]> countByStatusNotInGroupByEvent(Collection<Ticket.TicketStatus> statuses);
+    
+    @Query("SELECT t.section, t.rowLabel, t.seatNumber FROM Ticket t " +
+           "WHERE t.event.id = :eventId AND t.seatNumber IS NOT NULL AND t.status NOT IN :statuses")
+    List<Object[]> findAssignedSeats(Long eventId, Collection<Ticket.TicketStatus> statuses);
+    
+    @Query("SELECT t.id, t.ticketNumber, t.qrSeed, t.status FROM Ticket t WHERE t.event.id = :eventId AND t.status IN :statuses")
+    List<Object[]> findEntryRoster(Long eventId, Collection<Ticket.TicketStatus> statuses);
 }
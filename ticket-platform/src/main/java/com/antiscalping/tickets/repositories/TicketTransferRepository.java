@@ -1,16 +1,30 @@
 package com.antiscalping.tickets.repositories;
 
+import com.antiscalping.tickets.dto.TransferSummaryDto;
 import com.antiscalping.tickets.entities.TicketTransfer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface TicketTransferRepository extends JpaRepository<TicketTransfer, Long> {
     
-    List<TicketTransfer> findByFromUserId(Long userId);
+    String SUMMARY = "SELECT new com.antiscalping.tickets.dto.TransferSummaryDto(t.id, t.ticket.id, t.fromUser.id, t.toUser.id, " +
+        "CAST(t.transferType AS String), CAST(t.status AS String), t.transferPrice, t.requestedAt, t.approvedAt, " +
+        "t.completedAt, t.createdAt) FROM TicketTransfer t ";
     
-    List<TicketTransfer> findByToUserId(Long userId);
+    // Rows strictly before (beforeAt, beforeId), newest first
+    String BEFORE = "AND (t.createdAt < :beforeAt OR (t.createdAt = :beforeAt AND t.id < :beforeId)) " +
+        "ORDER BY t.createdAt DESC, t.id DESC";
+    
+    @Query(SUMMARY + "WHERE t.fromUser.id = :userId " + BEFORE)
+    List<TransferSummaryDto> findSentPage(Long userId, LocalDateTime beforeAt, Long beforeId, Pageable page);
+    
+    @Query(SUMMARY + "WHERE t.toUser.id = :userId " + BEFORE)
+    List<TransferSummaryDto> findReceivedPage(Long userId, LocalDateTime beforeAt, Long beforeId, Pageable page);
     
     List<TicketTransfer> findByTicketId(Long ticketId);
     
@@ -0,0 +1,299 @@
+package com.antiscalping.tickets.security;
+
+import com.antiscalping.tickets.dto.ApiResponseDto;
+import com.antiscalping.tickets.services.IdempotencyStore;
+import com.antiscalping.tickets.services.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    
+    // Set by handlers whose 4xx would be the same on every retry, e.g. request validation failures
+    public static final String DETERMINISTIC_REJECTION = IdempotencyFilter.class.getName() + ".deterministicRejection";
+    
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private static final long POLL_INTERVAL_MS = 50;
+    
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.idempotency.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.idempotency.paths:/tickets/purchase,/transfers/create,/holds,/holds/*/confirm}")
+    private String[] paths;
+    
+    @Value("${app.idempotency.ttl-seconds:86400}")
+    private long ttlSeconds;
+    
+    @Value("${app.idempotency.lock-ttl-ms:30000}")
+    private long lockTtlMs;
+    
+    @Value("${app.idempotency.wait-ms:10000}")
+    private long waitMs;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null) {
+            return true;
+        }
+        String path = path(request);
+        for (String pattern : paths) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication.getPrincipal() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "INVALID_IDEMPOTENCY_KEY",
+                "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String key = authentication.getPrincipal() + ":" + idempotencyKey;
+        String fingerprint = fingerprint(request.getMethod(), path(request), cachedRequest.body);
+        
+        StoredResponse stored = idempotencyStore.get(key);
+        if (stored != null) {
+            replay(stored, fingerprint, response);
+            return;
+        }
+        
+        // Duplicates arriving at this instance wait on the first call instead of running the service again
+        CompletableFuture<StoredResponse> call = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            respondWithResult(await(leader), fingerprint, response);
+            return;
+        }
+        
+        StoredResponse result = null;
+        try {
+            String lockToken = idempotencyStore.tryLock(key, lockTtlMs);
+            if (lockToken == null) {
+                // Another instance is running the original request
+                result = pollStore(key);
+                respondWithResult(result, fingerprint, response);
+                return;
+            }
+            
+            try {
+                result = idempotencyStore.get(key);
+                if (result != null) {
+                    replay(result, fingerprint, response);
+                } else {
+                    result = execute(cachedRequest, response, filterChain, key, fingerprint);
+                }
+            } finally {
+                idempotencyStore.unlock(key, lockToken);
+            }
+        } finally {
+            inFlight.remove(key, call);
+            call.complete(result);
+        }
+    }
+    
+    private StoredResponse execute(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                                   String key, String fingerprint) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        
+        StoredResponse result = null;
+        if (isReplayable(request, responseWrapper.getStatus())) {
+            result = new StoredResponse(fingerprint, responseWrapper.getStatus(), responseWrapper.getContentType(),
+                new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+            idempotencyStore.complete(key, result, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        }
+        responseWrapper.copyBodyToResponse();
+        return result;
+    }
+    
+    // Only outcomes a retry would reproduce are remembered. Rejections that depend on current state
+    // (waiting room, sold out, fraud velocity, conflicts) and server errors get a fresh attempt on retry
+    private boolean isReplayable(HttpServletRequest request, int status) {
+        if (status >= 200 && status < 300) {
+            return true;
+        }
+        return status >= 400 && status < 500
+            && status != HttpStatus.CONFLICT.value()
+            && status != HttpStatus.TOO_MANY_REQUESTS.value()
+            && Boolean.TRUE.equals(request.getAttribute(DETERMINISTIC_REJECTION));
+    }
+    
+    private void respondWithResult(StoredResponse result, String fingerprint, HttpServletResponse response) throws IOException {
+        if (result != null) {
+            replay(result, fingerprint, response);
+        } else {
+            writeError(response, HttpStatus.CONFLICT, "IDEMPOTENCY_KEY_IN_PROGRESS",
+                "A request with this Idempotency-Key is still in progress or failed; retry later");
+        }
+    }
+    
+    private void replay(StoredResponse stored, String fingerprint, HttpServletResponse response) throws IOException {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED",
+                "Idempotency-Key was already used for a different request");
+            return;
+        }
+        
+        response.setStatus(stored.status());
+        if (stored.contentType() != null && !stored.contentType().isEmpty()) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.getOutputStream().write(stored.body().getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private StoredResponse await(CompletableFuture<StoredResponse> leader) {
+        try {
+            return leader.get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+    
+    private StoredResponse pollStore(String key) {
+        long deadline = System.currentTimeMillis() + waitMs;
+        while (System.currentTimeMillis() < deadline) {
+            StoredResponse stored = idempotencyStore.get(key);
+            if (stored != null) {
+                return stored;
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    private void writeError(HttpServletResponse response, HttpStatus status, String error, String message) throws IOException {
+        ApiResponseDto<?> body = ApiResponseDto.builder()
+            .success(false)
+            .message(message)
+            .error(error)
+            .build();
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+    
+    private String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+    
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        
+        private final byte[] body;
+        
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = StreamUtils.copyToByteArray(request.getInputStream());
+        }
+        
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+                
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+                
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+                
+                @Override
+                public int read() {
+                    return input.read();
+                }
+            };
+        }
+        
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
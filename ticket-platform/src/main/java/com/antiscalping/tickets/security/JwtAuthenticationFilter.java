@@ -1,6 +1,5 @@
 package com.antiscalping.tickets.security;
 
-import com.antiscalping.tickets.utils.JwtTokenProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,15 +18,15 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     @Autowired
-    private JwtTokenProvider tokenProvider;
+    private TokenVerifier tokenVerifier;
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String token = extractToken(request);
-            if (token != null && tokenProvider.validateToken(token)) {
-                String userId = tokenProvider.getUserIdFromToken(token);
+            String userId = token != null ? tokenVerifier.verify(token) : null;
+            if (userId != null) {
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
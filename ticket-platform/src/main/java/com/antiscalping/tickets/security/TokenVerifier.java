@@ -0,0 +1,133 @@
+package com.antiscalping.tickets.security;
+
+import com.antiscalping.tickets.services.TokenRevocationService;
+import com.antiscalping.tickets.utils.JwtTokenProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Slf4j
+public class TokenVerifier {
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.jwt.cache.max-entries:100000}")
+    private long maxEntries;
+    
+    private Cache<String, VerifiedToken> verified;
+    
+    private Timer verificationTimer;
+    
+    private Counter rejected;
+    
+    private final ThreadLocal<MessageDigest> sha256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+    
+    @PostConstruct
+    public void init() {
+        // Entries live exactly until the token's own expiry
+        verified = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new Expiry<String, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.expiresAtMs() - System.currentTimeMillis()));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, token, currentTime);
+                }
+                
+                @Override
+                public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
+        verificationTimer = Timer.builder("jwt.verification")
+            .description("Time to parse and verify a token that was not cached")
+            .register(meterRegistry);
+        rejected = Counter.builder("jwt.rejected").register(meterRegistry);
+    }
+    
+    // Returns the token's user id, or null when the token is invalid, expired or revoked
+    public String verify(String token) {
+        String key = digest(token);
+        VerifiedToken verifiedToken = verified.getIfPresent(key);
+        if (verifiedToken == null || verifiedToken.expiresAtMs() <= System.currentTimeMillis()) {
+            verifiedToken = parse(key, token);
+            if (verifiedToken == null) {
+                return null;
+            }
+        }
+        
+        if (tokenRevocationService.isRevoked(verifiedToken.userId(), verifiedToken.tokenId(), verifiedToken.issuedAtMs())) {
+            rejected.increment();
+            return null;
+        }
+        return verifiedToken.userId();
+    }
+    
+    private VerifiedToken parse(String key, String token) {
+        long started = System.nanoTime();
+        try {
+            Claims claims = tokenProvider.parseClaims(token);
+            if (claims.getExpiration() == null || claims.getIssuedAt() == null) {
+                rejected.increment();
+                return null;
+            }
+            VerifiedToken verifiedToken = new VerifiedToken(claims.getSubject(), claims.getId(),
+                claims.getIssuedAt().getTime(), claims.getExpiration().getTime());
+            verified.put(key, verifiedToken);
+            return verifiedToken;
+        } catch (JwtException | IllegalArgumentException e) {
+            rejected.increment();
+            log.debug("Rejected token: {}", e.getMessage());
+            return null;
+        } finally {
+            verificationTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    // Keyed by digest so the cache never holds usable bearer tokens
+    private String digest(String token) {
+        MessageDigest digest = sha256.get();
+        return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+    
+    private record VerifiedToken(String userId, String tokenId, long issuedAtMs, long expiresAtMs) {
+    }
+}
@@ -0,0 +1,243 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.QueuePositionDto;
+import com.antiscalping.tickets.exceptions.AdmissionRequiredException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+@Slf4j
+public class AdmissionQueueService {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    
+    @Autowired
+    private AdmissionQueueStore queueStore;
+    
+    @Value("${app.queue.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.queue.admit-per-second:50}")
+    private int admitPerSecond;
+    
+    @Value("${app.queue.admission-ttl-seconds:600}")
+    private long admissionTtlSeconds;
+    
+    @Value("${app.queue.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+    
+    @Value("${app.queue.push-threads:4}")
+    private int pushThreads;
+    
+    @Value("${app.queue.token-secret:${app.jwt.secret:ticket-platform-secret-key-change-in-production}}")
+    private String tokenSecret;
+    
+    private SecretKeySpec tokenKey;
+    
+    private final Map<Long, Map<String, SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    
+    // Events whose previous round of position updates is still being written
+    private final Set<Long> pushing = ConcurrentHashMap.newKeySet();
+    
+    private ExecutorService pusher;
+    
+    @PostConstruct
+    public void init() {
+        tokenKey = new SecretKeySpec(tokenSecret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        pusher = Executors.newFixedThreadPool(pushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "queue-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pusher.shutdownNow();
+    }
+    
+    public QueuePositionDto join(Long eventId, Long userId) {
+        String member = userId.toString();
+        if (queueStore.isAdmitted(eventId, member, System.currentTimeMillis())) {
+            return position(eventId, member, true, null);
+        }
+        long rank = queueStore.enqueue(eventId, member);
+        return position(eventId, member, false, rank);
+    }
+    
+    public QueuePositionDto getPosition(String token) {
+        long[] claims = parseToken(token);
+        return getPosition(claims[0], claims[1]);
+    }
+    
+    public QueuePositionDto getPosition(Long eventId, Long userId) {
+        String member = userId.toString();
+        if (queueStore.isAdmitted(eventId, member, System.currentTimeMillis())) {
+            return position(eventId, member, true, null);
+        }
+        Long rank = queueStore.rank(eventId, member);
+        if (rank == null) {
+            throw new ResourceNotFoundException("You are not in the waiting room for this event");
+        }
+        return position(eventId, member, false, rank);
+    }
+    
+    public SseEmitter subscribe(String token) {
+        long[] claims = parseToken(token);
+        Long eventId = claims[0];
+        String member = String.valueOf(claims[1]);
+        
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        Map<String, SseEmitter> eventSubscribers = subscribers.computeIfAbsent(eventId, id -> new ConcurrentHashMap<>());
+        eventSubscribers.put(member, emitter);
+        emitter.onCompletion(() -> eventSubscribers.remove(member, emitter));
+        emitter.onTimeout(() -> eventSubscribers.remove(member, emitter));
+        emitter.onError(e -> eventSubscribers.remove(member, emitter));
+        
+        push(eventId, member, emitter);
+        return emitter;
+    }
+    
+    public void requireAdmission(Long eventId, Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!queueStore.isAdmitted(eventId, userId.toString(), System.currentTimeMillis())) {
+            throw new AdmissionRequiredException("Join the waiting room for this event before purchasing");
+        }
+    }
+    
+    public void complete(Long eventId, Long userId) {
+        if (enabled) {
+            queueStore.revokeAdmission(eventId, userId.toString());
+        }
+    }
+    
+    @Scheduled(fixedRateString = "${app.queue.admit-interval-ms:1000}")
+    public void admit() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long tick = now / 1000;
+        
+        Set<Long> events;
+        try {
+            events = queueStore.activeEvents();
+        } catch (Exception e) {
+            // Subscribers below still get their positions; admission resumes on a later tick
+            log.warn("Admission tick skipped, active events unavailable: {}", e.getMessage());
+            events = Set.of();
+        }
+        
+        for (Long eventId : events) {
+            try {
+                if (queueStore.acquireTick(eventId, tick)) {
+                    List<String> admitted = queueStore.admitNext(eventId, admitPerSecond, now + admissionTtlSeconds * 1000);
+                    if (!admitted.isEmpty()) {
+                        log.debug("Admitted {} buyers for event {}", admitted.size(), eventId);
+                    }
+                }
+                queueStore.expireAdmissions(eventId, now);
+            } catch (Exception e) {
+                log.warn("Admission tick failed for event {}: {}", eventId, e.getMessage());
+            }
+        }
+        
+        // Writes to slow clients block, so they happen off the shared scheduler thread. An event still busy
+        // with the last round skips this one; the next tick sends fresh positions anyway
+        subscribers.forEach((eventId, eventSubscribers) -> {
+            if (!eventSubscribers.isEmpty() && pushing.add(eventId)) {
+                pusher.execute(() -> {
+                    try {
+                        eventSubscribers.forEach((member, emitter) -> push(eventId, member, emitter));
+                    } finally {
+                        pushing.remove(eventId);
+                    }
+                });
+            }
+        });
+    }
+    
+    private void push(Long eventId, String member, SseEmitter emitter) {
+        try {
+            boolean admitted = queueStore.isAdmitted(eventId, member, System.currentTimeMillis());
+            QueuePositionDto position = position(eventId, member, admitted, admitted ? null : queueStore.rank(eventId, member));
+            emitter.send(SseEmitter.event().name(admitted ? "admitted" : "position").data(position));
+            if (admitted) {
+                emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+    
+    private QueuePositionDto position(Long eventId, String member, boolean admitted, Long rank) {
+        Long position = rank != null ? rank + 1 : null;
+        return QueuePositionDto.builder()
+            .eventId(eventId)
+            .token(issueToken(eventId, member))
+            .admitted(admitted)
+            .position(position)
+            .estimatedWaitSeconds(position != null ? (position + admitPerSecond - 1) / admitPerSecond : null)
+            .build();
+    }
+    
+    // Tokens are stateless so the position stream can be opened without an Authorization header
+    private String issueToken(Long eventId, String member) {
+        String claims = eventId + "." + member;
+        return claims + "." + sign(claims);
+    }
+    
+    private long[] parseToken(String token) {
+        String[] parts = token != null ? token.split("\\.") : new String[0];
+        if (parts.length != 3) {
+            throw new UnauthorizedException("Invalid queue token");
+        }
+        
+        String claims = parts[0] + "." + parts[1];
+        byte[] expected = sign(claims).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII))) {
+            throw new UnauthorizedException("Invalid queue token");
+        }
+        
+        try {
+            return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+        } catch (NumberFormatException e) {
+            throw new UnauthorizedException("Invalid queue token", e);
+        }
+    }
+    
+    private String sign(String claims) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(tokenKey);
+            byte[] signature = mac.doFinal(claims.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(signature, 16));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign queue token", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.antiscalping.tickets.services;
+
+import java.util.List;
+import java.util.Set;
+
+public interface AdmissionQueueStore {
+    
+    long enqueue(Long eventId, String member);
+    
+    Long rank(Long eventId, String member);
+    
+    long waitingCount(Long eventId);
+    
+    List<String> admitNext(Long eventId, int count, long admittedUntil);
+    
+    boolean isAdmitted(Long eventId, String member, long now);
+    
+    void revokeAdmission(Long eventId, String member);
+    
+    void expireAdmissions(Long eventId, long now);
+    
+    boolean acquireTick(Long eventId, long tick);
+    
+    Set<Long> activeEvents();
+}
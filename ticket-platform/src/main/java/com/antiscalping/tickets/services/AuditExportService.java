@@ -0,0 +1,257 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class AuditExportService {
+    
+    private static final String SELECT_SQL =
+        "SELECT id, user_id, action, entity_type, entity_id, details, ip_address, created_at FROM audit_logs WHERE ";
+    
+    private static final String USER_FILTER = "user_id = ?";
+    
+    // The event row itself plus every row about one of its tickets
+    private static final String EVENT_FILTER = "((entity_type = 'EVENT' AND entity_id = ?) " +
+        "OR (entity_type = 'TICKET' AND entity_id IN (SELECT id FROM tickets WHERE event_id = ?)))";
+    
+    private static final String CSV_HEADER = "id,userId,action,entityType,entityId,details,ipAddress,createdAt\n";
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String contentType() {
+            return contentType;
+        }
+        
+        public String extension() {
+            return extension;
+        }
+    }
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${spring.jpa.properties.hibernate.jdbc.fetch_size:50}")
+    private int fetchSize;
+    
+    private JdbcTemplate cursorJdbcTemplate;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        // Postgres only streams with a fetch size inside a transaction; otherwise the driver reads the whole result
+        cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        cursorJdbcTemplate.setFetchSize(fetchSize);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+    
+    public Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+    }
+    
+    public void requireOrganizer(Long eventId, Long userId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can export its audit trail");
+        }
+    }
+    
+    public long exportUserLogs(Long userId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        params.add(userId);
+        return export(USER_FILTER, params, from, to, format, out);
+    }
+    
+    public long exportEventLogs(Long eventId, LocalDateTime from, LocalDateTime to, Format format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        params.add(eventId);
+        params.add(eventId);
+        return export(EVENT_FILTER, params, from, to, format, out);
+    }
+    
+    // Rows go from the forward-only cursor straight into the stream one at a time, so memory use
+    // does not depend on how many rows match
+    private long export(String filter, List<Object> params, LocalDateTime from, LocalDateTime to, Format format,
+                        OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT_SQL).append(filter);
+        if (from != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY created_at, id");
+        
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        RowWriter writer = format == Format.CSV ? new CsvRowWriter(buffered) : new NdjsonRowWriter(buffered);
+        long[] rows = new long[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> cursorJdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    writer.write(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            }, params.toArray()));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} audit rows as {}", rows[0], format);
+        return rows[0];
+    }
+    
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+        
+        void finish() throws IOException;
+    }
+    
+    private class NdjsonRowWriter implements RowWriter {
+        
+        private final JsonGenerator generator;
+        
+        NdjsonRowWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+        }
+        
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", rs.getLong("id"));
+            writeLong("userId", rs.getObject("user_id"));
+            generator.writeStringField("action", rs.getString("action"));
+            generator.writeStringField("entityType", rs.getString("entity_type"));
+            writeLong("entityId", rs.getObject("entity_id"));
+            generator.writeStringField("details", rs.getString("details"));
+            generator.writeStringField("ipAddress", rs.getString("ip_address"));
+            generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+        
+        private void writeLong(String field, Object value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(field);
+            } else {
+                generator.writeNumberField(field, ((Number) value).longValue());
+            }
+        }
+    }
+    
+    private static class CsvRowWriter implements RowWriter {
+        
+        private final Writer writer;
+        
+        CsvRowWriter(OutputStream out) throws IOException {
+            writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            writer.write(CSV_HEADER);
+        }
+        
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            writer.write(Long.toString(rs.getLong("id")));
+            writer.write(',');
+            writeValue(rs.getObject("user_id"));
+            writer.write(',');
+            writeValue(rs.getString("action"));
+            writer.write(',');
+            writeValue(rs.getString("entity_type"));
+            writer.write(',');
+            writeValue(rs.getObject("entity_id"));
+            writer.write(',');
+            writeValue(rs.getString("details"));
+            writer.write(',');
+            writeValue(rs.getString("ip_address"));
+            writer.write(',');
+            writer.write(rs.getTimestamp("created_at").toLocalDateTime().toString());
+            writer.write('\n');
+        }
+        
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+        
+        // RFC 4180 quoting, only when the value needs it
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.services.AuditWriter.AuditEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves audit_outbox rows into audit_logs; only exists when app.audit.mode=outbox
+@Component
+@ConditionalOnProperty(prefix = "app.audit", name = "mode", havingValue = "outbox")
+public class AuditOutboxRelay {
+    
+    private static final String CLAIM_OUTBOX_SQL =
+        "SELECT id, user_id, action, entity_type, entity_id, details, created_at FROM audit_outbox " +
+        "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED";
+    
+    private static final String DELETE_OUTBOX_SQL = "DELETE FROM audit_outbox WHERE id IN (:ids)";
+    
+    @Autowired
+    private AuditWriter auditWriter;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // The claimed rows stay locked until they are deleted; audit_logs is written in its own transactions,
+    // so a failure between the two relays the batch again rather than losing it
+    @Scheduled(fixedDelayString = "${app.audit.outbox.relay-interval-ms:500}")
+    public void relayOutbox() {
+        Integer relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> {
+                List<Long> ids = new ArrayList<>();
+                List<AuditEvent> events = namedParameterJdbcTemplate.query(CLAIM_OUTBOX_SQL,
+                    new MapSqlParameterSource("limit", batchSize), (rs, rowNum) -> {
+                        ids.add(rs.getLong("id"));
+                        return new AuditEvent(
+                            (Long) rs.getObject("user_id"),
+                            rs.getString("action"),
+                            rs.getString("entity_type"),
+                            (Long) rs.getObject("entity_id"),
+                            rs.getString("details"),
+                            rs.getTimestamp("created_at").toLocalDateTime());
+                    });
+                if (events.isEmpty()) {
+                    return 0;
+                }
+                auditWriter.write(events);
+                namedParameterJdbcTemplate.update(DELETE_OUTBOX_SQL, new MapSqlParameterSource("ids", ids));
+                return events.size();
+            });
+        } while (relayed != null && relayed == batchSize);
+    }
+}
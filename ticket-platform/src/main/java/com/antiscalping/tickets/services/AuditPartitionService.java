@@ -0,0 +1,101 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+@Slf4j
+public class AuditPartitionService {
+    
+    private static final Pattern PARTITION_NAME = Pattern.compile("audit_logs_y(\\d{4})m(\\d{2})");
+    
+    private static final String LIST_PARTITIONS_SQL =
+        "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'audit_logs'::regclass";
+    
+    // Arbitrary key shared by every instance so only one of them maintains partitions at a time
+    private static final long MAINTENANCE_LOCK = 7_263_001L;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.audit.partitions.months-ahead:3}")
+    private int monthsAhead;
+    
+    @Value("${app.audit.partitions.retention-months:13}")
+    private int retentionMonths;
+    
+    // When false, expired partitions are only detached and left in place for archiving
+    @Value("${app.audit.partitions.drop-expired:true}")
+    private boolean dropExpired;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.audit.partitions.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK);
+            if (!Boolean.TRUE.equals(locked)) {
+                return;
+            }
+            
+            Set<YearMonth> existing = new TreeSet<>();
+            for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class)) {
+                Matcher matcher = PARTITION_NAME.matcher(name);
+                if (matcher.matches()) {
+                    existing.add(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                }
+            }
+            
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                YearMonth month = current.plusMonths(i);
+                if (!existing.contains(month)) {
+                    jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF audit_logs FOR VALUES FROM ('%s') TO ('%s')",
+                        partitionName(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+                    log.info("Created audit partition {}", partitionName(month));
+                }
+            }
+            
+            YearMonth oldestKept = current.minusMonths(Math.max(retentionMonths, 1) - 1);
+            for (YearMonth month : existing) {
+                if (!month.isBefore(oldestKept)) {
+                    break;
+                }
+                String name = partitionName(month);
+                jdbcTemplate.execute("ALTER TABLE audit_logs DETACH PARTITION " + name);
+                if (dropExpired) {
+                    jdbcTemplate.execute("DROP TABLE " + name);
+                }
+                log.info("{} expired audit partition {}", dropExpired ? "Dropped" : "Detached", name);
+            }
+        });
+    }
+    
+    private static String partitionName(YearMonth month) {
+        return String.format("audit_logs_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
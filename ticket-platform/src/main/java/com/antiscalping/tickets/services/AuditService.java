@@ -1,11 +1,27 @@
 package com.antiscalping.tickets.services;
 
-import com.antiscalping.tickets.entities.AuditLog;
+import com.antiscalping.tickets.dto.AuditLogDto;
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
 import com.antiscalping.tickets.repositories.AuditLogRepository;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.services.AuditWriter.AuditEvent;
+import com.antiscalping.tickets.utils.KeysetCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import lombok.extern.slf4j.Slf4j;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -13,18 +29,157 @@ import java.util.List;
 @Slf4j
 public class AuditService {
     
+    private static final String OUTBOX_MODE = "outbox";
+    
     @Autowired
     private AuditLogRepository auditLogRepository;
     
-    public List<AuditLog> getUserAuditLogs(Long userId) {
-        return auditLogRepository.findByUserId(userId);
+    @Autowired
+    private AuditWriter auditWriter;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    // after-commit: events reach the writer's buffer once the business transaction commits and
+    // are lost if the process dies before the next flush; outbox: they commit with the transaction
+    @Value("${app.audit.mode:after-commit}")
+    private String mode;
+    
+    @Value("${app.audit.query.default-window-days:30}")
+    private int defaultWindowDays;
+    
+    @Value("${app.audit.query.max-window-days:93}")
+    private int maxWindowDays;
+    
+    @Value("${app.audit.query.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.audit.query.max-page-size:500}")
+    private int maxPageSize;
+    
+    // Joins the caller's transaction without opening one, so recording costs no database round trip
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void record(Long userId, String action, String entityType, Long entityId, String details) {
+        record(new AuditEvent(userId, action, entityType, entityId, details, LocalDateTime.now()));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void record(AuditEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (OUTBOX_MODE.equals(mode)) {
+                auditWriter.writeOutbox(List.of(event));
+            } else {
+                auditWriter.enqueue(List.of(event));
+            }
+            return;
+        }
+        currentBatch().events.add(event);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuditLogDto> getUserAuditLogs(Long userId, LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, beforeAt, beforeId, page) ->
+            auditLogRepository.findUserPage(userId, start, beforeAt, beforeId, page));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuditLogDto> getActionLogs(String action, LocalDateTime from, LocalDateTime to, String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, beforeAt, beforeId, page) ->
+            auditLogRepository.findActionPage(action, start, beforeAt, beforeId, page));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuditLogDto> getEntityLogs(String entityType, Long entityId, LocalDateTime from, LocalDateTime to,
+                                                    String cursor, Integer limit) {
+        return page(from, to, cursor, limit, (start, beforeAt, beforeId, page) ->
+            auditLogRepository.findEntityPage(entityType, entityId, start, beforeAt, beforeId, page));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuditLogDto> getEventAuditLogs(Long eventId, Long userId, LocalDateTime from, LocalDateTime to,
+                                                        String cursor, Integer limit) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can read its audit trail");
+        }
+        return getEntityLogs("EVENT", eventId, from, to, cursor, limit);
+    }
+    
+    // Every query is bounded in time so it only scans the partitions covering [from, to)
+    private CursorPageDto<AuditLogDto> page(LocalDateTime from, LocalDateTime to, String cursor, Integer limit, PageQuery query) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(defaultWindowDays);
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("from must be before to");
+        }
+        if (start.plusDays(maxWindowDays).isBefore(end)) {
+            throw new BadRequestException("Audit queries can span at most " + maxWindowDays + " days");
+        }
+        int size = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+        
+        LocalDateTime beforeAt = end;
+        long beforeId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position;
+            try {
+                position = KeysetCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage());
+            }
+            if (position.at().isBefore(end)) {
+                beforeAt = position.at();
+                beforeId = position.id();
+            }
+        }
+        
+        // One extra row tells whether another page exists without a COUNT
+        List<AuditLogDto> rows = query.find(start, beforeAt, beforeId, PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            AuditLogDto last = rows.get(size - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPageDto.<AuditLogDto>builder()
+            .items(rows)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    // Synchronizations are suspended along with their transaction, so a REQUIRES_NEW inner
+    // transaction gets its own batch instead of adding to the outer one
+    private TransactionBatch currentBatch() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionBatch batch) {
+                return batch;
+            }
+        }
+        TransactionBatch batch = new TransactionBatch();
+        TransactionSynchronizationManager.registerSynchronization(batch);
+        return batch;
     }
     
-    public List<AuditLog> getActionLogs(String action) {
-        return auditLogRepository.findByAction(action);
+    private class TransactionBatch implements TransactionSynchronization {
+        
+        private final List<AuditEvent> events = new ArrayList<>();
+        
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (OUTBOX_MODE.equals(mode)) {
+                auditWriter.writeOutbox(events);
+            }
+        }
+        
+        @Override
+        public void afterCommit() {
+            if (!OUTBOX_MODE.equals(mode)) {
+                auditWriter.enqueue(events);
+            }
+        }
     }
     
-    public List<AuditLog> getEntityLogs(String entityType, Long entityId) {
-        return auditLogRepository.findByEntityTypeAndEntityId(entityType, entityId);
+    private interface PageQuery {
+        List<AuditLogDto> find(LocalDateTime from, LocalDateTime beforeAt, Long beforeId, Pageable page);
     }
 }
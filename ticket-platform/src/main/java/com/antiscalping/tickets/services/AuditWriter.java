@@ -0,0 +1,231 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.utils.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+@Slf4j
+public class AuditWriter {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, details, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    private static final String OUTBOX_INSERT_SQL =
+        "INSERT INTO audit_outbox (user_id, action, entity_type, entity_id, details, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    
+    private static final String DEAD_LETTER_SQL =
+        "INSERT INTO audit_dead_letters (user_id, action, entity_type, entity_id, details, created_at, error) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    
+    // Matches the audit_logs_id_seq increment from V5, the same pooled-lo blocks Hibernate uses
+    private static final int ID_BLOCK_SIZE = 50;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.audit.buffer-size:65536}")
+    private int bufferSize;
+    
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+    
+    @Value("${app.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+    
+    private RingBuffer<AuditEvent> buffer;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private Thread writer;
+    
+    private volatile boolean running;
+    
+    private Timer flushTimer;
+    
+    private Counter written;
+    
+    private Counter overflowed;
+    
+    private Counter deadLettered;
+    
+    private long nextId;
+    
+    private long idLimit;
+    
+    @PostConstruct
+    public void init() {
+        buffer = new RingBuffer<>(bufferSize);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        
+        Gauge.builder("audit.queue.depth", buffer, RingBuffer::size).register(meterRegistry);
+        flushTimer = Timer.builder("audit.flush").description("Time to write one batch of audit events").register(meterRegistry);
+        written = Counter.builder("audit.written").register(meterRegistry);
+        overflowed = Counter.builder("audit.overflow").description("Events written by the caller because the buffer was full").register(meterRegistry);
+        deadLettered = Counter.builder("audit.dead_lettered").description("Events audit_logs rejected, kept in audit_dead_letters").register(meterRegistry);
+        
+        running = true;
+        writer = new Thread(this::drainLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        
+        List<AuditEvent> remaining = new ArrayList<>();
+        buffer.drainTo(remaining, Integer.MAX_VALUE);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+    
+    // Called after the business transaction committed, so it must never fail the request
+    public void enqueue(List<AuditEvent> events) {
+        for (AuditEvent event : events) {
+            if (!offer(event)) {
+                // Back-pressure: the caller pays for its own write rather than the event being dropped
+                overflowed.increment();
+                try {
+                    write(List.of(event));
+                } catch (RuntimeException e) {
+                    log.error("Audit event lost, database unavailable: {}", event, e);
+                }
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+    
+    // Runs on the business transaction's connection so the rows commit or roll back with it
+    public void writeOutbox(List<AuditEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rows.add(new Object[] {
+                event.userId(), event.action(), event.entityType(), event.entityId(), event.details(),
+                Timestamp.valueOf(event.createdAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(OUTBOX_INSERT_SQL, rows);
+    }
+    
+    // Writes the events to audit_logs. Rows the table rejects (a foreign key, or a created_at no partition
+    // covers) are isolated by splitting the batch and moved to audit_dead_letters, so one bad event never
+    // blocks the rest; transient failures such as a lost connection are thrown for the caller to retry
+    public void write(List<AuditEvent> events) {
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(events));
+            written.increment(events.size());
+        } catch (DataIntegrityViolationException e) {
+            if (events.size() == 1) {
+                deadLetter(events.get(0), e);
+            } else {
+                int middle = events.size() / 2;
+                write(events.subList(0, middle));
+                write(events.subList(middle, events.size()));
+            }
+        }
+        flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+    
+    private boolean offer(AuditEvent event) {
+        if (buffer.offer(event)) {
+            return true;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        while (System.nanoTime() < deadline) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (batch.isEmpty() && buffer.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            try {
+                write(batch);
+                batch.clear();
+            } catch (RuntimeException e) {
+                // Only transient failures get here; the batch is kept and retried once the database is back
+                log.error("Failed to write {} audit events; retrying", batch.size(), e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+            }
+        }
+    }
+    
+    private void deadLetter(AuditEvent event, DataIntegrityViolationException cause) {
+        log.error("audit_logs rejected {}; moving it to audit_dead_letters: {}", event, cause.getMostSpecificCause().getMessage());
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, event.userId(), event.action(), event.entityType(), event.entityId(),
+                event.details(), Timestamp.valueOf(event.createdAt()), cause.getMostSpecificCause().getMessage());
+            deadLettered.increment();
+        } catch (RuntimeException e) {
+            log.error("Audit event lost, dead-letter write failed: {}", event, e);
+        }
+    }
+    
+    // With reWriteBatchedInserts the driver sends these as multi-row INSERTs
+    private void insert(List<AuditEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rows.add(new Object[] {
+                nextId(), event.userId(), event.action(), event.entityType(), event.entityId(), event.details(),
+                Timestamp.valueOf(event.createdAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+    
+    private synchronized long nextId() {
+        if (nextId == idLimit) {
+            nextId = jdbcTemplate.queryForObject("SELECT nextval('audit_logs_id_seq')", Long.class);
+            idLimit = nextId + ID_BLOCK_SIZE;
+        }
+        return nextId++;
+    }
+    
+    public record AuditEvent(Long userId, String action, String entityType, Long entityId, String details,
+                             LocalDateTime createdAt) {
+    }
+}
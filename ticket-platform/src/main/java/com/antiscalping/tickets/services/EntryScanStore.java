@@ -0,0 +1,28 @@
+package com.antiscalping.tickets.services;
+
+// State every node running entry for an event must agree on: whether entry is open, and which
+// tickets have been admitted or revoked. Rosters on each node only filter repeats locally
+public interface EntryScanStore {
+    
+    void open(Long eventId, String organizerId);
+    
+    // Organizer of an open event, or null when entry is closed
+    String organizerOf(Long eventId);
+    
+    void close(Long eventId);
+    
+    // Atomic across nodes: exactly one caller gets CLAIMED for a ticket. presentedTag is the seed tag on
+    // the scanned code (null for typed numbers) and rosterTag the one the caller's roster or lookup holds
+    Claim claim(Long eventId, long ticketId, String presentedTag, String rosterTag);
+    
+    void markScanned(Long eventId, long ticketId);
+    
+    void revoke(Long eventId, long ticketId);
+    
+    // Overrides every node's roster seed tag for the ticket
+    void reissue(Long eventId, long ticketId, String seedTag);
+    
+    enum Claim {
+        CLAIMED, ALREADY_SCANNED, REVOKED, STALE, CLOSED
+    }
+}
@@ -0,0 +1,212 @@
+package com.antiscalping.tickets.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Event catalog reads go local cache -> Redis -> database. Writers delete the Redis copies and
+// broadcast the event id, and every node drops its local copies when the message arrives
+@Service
+@Slf4j
+public class EventCatalogCache {
+    
+    public static final String EVENT = "event";
+    
+    public static final String ACTIVE = "events-active";
+    
+    public static final String UPCOMING = "events-upcoming";
+    
+    public static final String FIRST_PAGE = "first";
+    
+    // Listings carry availability, so any change to one event invalidates them too
+    private static final List<String> LISTINGS = List.of(ACTIVE, UPCOMING);
+    
+    private static final String KEY_PREFIX = "catalog:";
+    
+    private static final String CHANNEL = "catalog:invalidations";
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.catalog.cache.max-entries:10000}")
+    private long maxEntries;
+    
+    @Value("${app.catalog.cache.local-ttl-ms:5000}")
+    private long localTtlMs;
+    
+    @Value("${app.catalog.cache.redis-ttl-ms:30000}")
+    private long redisTtlMs;
+    
+    // Spreads expiries by up to this fraction either way so entries filled together do not expire together
+    @Value("${app.catalog.cache.ttl-jitter:0.2}")
+    private double ttlJitter;
+    
+    private Cache<String, Object> local;
+    
+    @PostConstruct
+    public void init() {
+        local = Caffeine.newBuilder()
+            .maximumSize(maxEntries)
+            .expireAfter(new Expiry<String, Object>() {
+                @Override
+                public long expireAfterCreate(String key, Object value, long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(jittered(localTtlMs));
+                }
+                
+                @Override
+                public long expireAfterUpdate(String key, Object value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+                
+                @Override
+                public long expireAfterRead(String key, Object value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "catalog.local");
+        
+        listenerContainer.addMessageListener(
+            (message, pattern) -> evictLocal(Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8))),
+            new ChannelTopic(CHANNEL));
+    }
+    
+    // Concurrent misses for one key on this node share a single load; the others wait for its result
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cache, String id, TypeReference<T> type, Supplier<T> loader) {
+        String key = cache + ":" + id;
+        boolean[] loaded = new boolean[1];
+        T value = (T) local.get(key, k -> {
+            loaded[0] = true;
+            return loadThrough(cache, k, type, loader);
+        });
+        if (!loaded[0]) {
+            served(cache, "local").increment();
+        }
+        return value;
+    }
+    
+    public void evictEvent(Long eventId) {
+        evictEvents(List.of(eventId));
+    }
+    
+    public void evictEvents(Collection<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(eventIds.size() + LISTINGS.size());
+            for (Long eventId : eventIds) {
+                keys.add(KEY_PREFIX + EVENT + ":" + eventId);
+            }
+            for (String listing : LISTINGS) {
+                keys.add(KEY_PREFIX + listing + ":" + FIRST_PAGE);
+            }
+            redisTemplate.delete(keys);
+            for (Long eventId : eventIds) {
+                redisTemplate.convertAndSend(CHANNEL, eventId.toString());
+            }
+        } catch (RuntimeException e) {
+            // Other nodes converge when their copies expire
+            log.warn("Could not broadcast catalog invalidation for events {}: {}", eventIds, e.getMessage());
+        }
+        eventIds.forEach(this::evictLocal);
+    }
+    
+    public void evictEventAfterCommit(Long eventId) {
+        evictEventsAfterCommit(List.of(eventId));
+    }
+    
+    // Readers on other nodes must not reload the old row between the eviction and the commit
+    public void evictEventsAfterCommit(Collection<Long> eventIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEvents(eventIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictEvents(eventIds);
+            }
+        });
+    }
+    
+    private <T> T loadThrough(String cache, String key, TypeReference<T> type, Supplier<T> loader) {
+        String redisKey = KEY_PREFIX + key;
+        try {
+            Object cached = redisTemplate.opsForValue().get(redisKey);
+            if (cached != null) {
+                served(cache, "redis").increment();
+                return objectMapper.readValue(cached.toString(), type);
+            }
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.debug("Catalog read from Redis failed for {}: {}", key, e.getMessage());
+        }
+        
+        long started = System.nanoTime();
+        T value = loader.get();
+        Timer.builder("catalog.load").tag("cache", cache).register(meterRegistry)
+            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        served(cache, "database").increment();
+        
+        try {
+            redisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(value), jittered(redisTtlMs), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException | JsonProcessingException e) {
+            log.debug("Catalog write to Redis failed for {}: {}", key, e.getMessage());
+        }
+        return value;
+    }
+    
+    private void evictLocal(Long eventId) {
+        local.invalidate(EVENT + ":" + eventId);
+        for (String listing : LISTINGS) {
+            local.invalidate(listing + ":" + FIRST_PAGE);
+        }
+    }
+    
+    private long jittered(long ttlMs) {
+        double factor = 1 + (ThreadLocalRandom.current().nextDouble() * 2 - 1) * ttlJitter;
+        return Math.max(1, (long) (ttlMs * factor));
+    }
+    
+    private Counter served(String cache, String tier) {
+        return Counter.builder("catalog.requests")
+            .tag("cache", cache)
+            .tag("tier", tier)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.entities.Event;
+import java.util.List;
+
+public interface EventSearchIndex {
+    
+    // Active events whose name or venue resembles the query, best match first
+    List<SearchHit> search(String query, int limit);
+    
+    // Distinct event names and venues starting with the prefix
+    List<String> suggest(String prefix, int limit);
+    
+    // Indexes that read the events table directly need no notification of changes
+    default void index(Event event) {
+    }
+    
+    default void remove(Long eventId) {
+    }
+    
+    record SearchHit(Long eventId, double score) {
+    }
+}
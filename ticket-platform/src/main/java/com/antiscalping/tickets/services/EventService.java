@@ -1,22 +1,30 @@
 package com.antiscalping.tickets.services;
 
+import com.antiscalping.tickets.dto.CursorPageDto;
 import com.antiscalping.tickets.dto.EventDto;
 import com.antiscalping.tickets.dto.EventCreateDto;
 import com.antiscalping.tickets.entities.Event;
-import com.antiscalping.tickets.entities.AuditLog;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.EventRepository;
-import com.antiscalping.tickets.repositories.TicketRepository;
-import com.antiscalping.tickets.repositories.AuditLogRepository;
-import com.antiscalping.tickets.repositories.UserRepository;
+import com.antiscalping.tickets.utils.KeysetCursor;
+import com.antiscalping.tickets.utils.KeysetPaging;
+import com.fasterxml.jackson.core.type.TypeReference;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,16 +36,35 @@ public class EventService {
     private EventRepository eventRepository;
     
     @Autowired
-    private TicketRepository ticketRepository;
+    private AuditService auditService;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private InventoryService inventoryService;
     
     @Autowired
-    private UserRepository userRepository;
+    private TicketStockService ticketStockService;
+    
+    @Autowired
+    private EventCatalogCache eventCatalogCache;
+    
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+    
+    @Value("${app.search.max-results:50}")
+    private int maxSearchResults;
+    
+    @Value("${app.search.min-query-length:2}")
+    private int minQueryLength;
     
     private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     
+    private static final TypeReference<EventDto> EVENT_TYPE = new TypeReference<>() {};
+    
+    private static final TypeReference<CursorPageDto<EventDto>> LISTING_TYPE = new TypeReference<>() {};
+    
     public EventDto createEvent(EventCreateDto eventCreateDto, Long userId) {
         LocalDateTime eventDate = LocalDateTime.parse(eventCreateDto.getEventDate(), formatter);
         
@@ -57,44 +84,65 @@ public class EventService {
             .build();
         
         Event savedEvent = eventRepository.save(event);
+        ticketStockService.mintStock(savedEvent.getId(), savedEvent.getTotalCapacity());
+        inventoryService.initializeAfterCommit(savedEvent.getId(), savedEvent.getAvailableTickets());
         
-        logAudit(userId, "EVENT_CREATED", "EVENT", savedEvent.getId(), null);
+        auditService.record(userId, "EVENT_CREATED", "EVENT", savedEvent.getId(), null);
+        eventCatalogCache.evictEventAfterCommit(savedEvent.getId());
+        eventSearchIndex.index(savedEvent);
         
         return mapToDto(savedEvent);
     }
     
+    // Cache hits never open a transaction or borrow a connection
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public EventDto getEventById(Long eventId) {
-        Event event = eventRepository.findById(eventId)
-            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
-        return mapToDto(event);
+        return eventCatalogCache.get(EventCatalogCache.EVENT, eventId.toString(), EVENT_TYPE, () -> {
+            Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+            return mapToDto(event);
+        });
     }
     
-    public List<EventDto> getAllEvents() {
-        List<Event> events = eventRepository.findByStatus("ACTIVE");
-        return events.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDto<EventDto> getAllEvents(String cursor, Integer limit) {
+        return listing(EventCatalogCache.ACTIVE, cursor, limit, (position, page) ->
+            eventRepository.findListingByStatus(Event.EventStatus.ACTIVE, position.at(), position.id(), page));
     }
     
-    public List<EventDto> getUpcomingEvents() {
-        List<Event> events = eventRepository.findUpcomingEvents(LocalDateTime.now());
-        return events.stream().map(this::mapToDto).collect(Collectors.toList());
-    }
-    
-    public List<EventDto> searchEventsByVenue(String venue) {
-        List<Event> events = eventRepository.findByVenue(venue);
-        return events.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPageDto<EventDto> getUpcomingEvents(String cursor, Integer limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return listing(EventCatalogCache.UPCOMING, cursor, limit, (position, page) ->
+            eventRepository.findUpcomingListing(now, position.at(), position.id(), page));
     }
     
-    public void updateAvailableTickets(Long eventId, Integer quantity) {
-        Event event = eventRepository.findById(eventId)
-            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
-        
-        event.setAvailableTickets(event.getAvailableTickets() - quantity);
-        
-        if (event.getAvailableTickets() < 0) {
-            event.setAvailableTickets(0);
+    // Ranked ids come from the trigram index, then one listing query loads the rows
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<EventDto> searchEvents(String query, Integer limit) {
+        String term = searchTerm(query);
+        List<EventSearchIndex.SearchHit> hits = eventSearchIndex.search(term, searchLimit(limit));
+        if (hits.isEmpty()) {
+            return List.of();
         }
         
-        eventRepository.save(event);
+        Map<Long, EventDto> events = eventRepository.findListingByIds(hits.stream().map(EventSearchIndex.SearchHit::eventId).toList())
+            .stream()
+            .collect(Collectors.toMap(EventDto::getId, Function.identity()));
+        return hits.stream()
+            .map(hit -> events.get(hit.eventId()))
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<String> suggestEvents(String prefix, Integer limit) {
+        return eventSearchIndex.suggest(searchTerm(prefix), searchLimit(limit));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<EventDto> searchEventsByVenue(String venue) {
+        return searchEvents(venue, null);
     }
     
     public void cancelEvent(Long eventId, Long userId) {
@@ -104,12 +152,39 @@ public class EventService {
         event.setStatus(Event.EventStatus.CANCELLED);
         eventRepository.save(event);
         
-        logAudit(userId, "EVENT_CANCELLED", "EVENT", eventId, null);
+        auditService.record(userId, "EVENT_CANCELLED", "EVENT", eventId, null);
+        eventCatalogCache.evictEventAfterCommit(eventId);
+        eventSearchIndex.remove(eventId);
+    }
+    
+    // Only the first page at the default size is cached; deeper pages are cheap index range scans
+    private CursorPageDto<EventDto> listing(String cache, String cursor, Integer limit,
+                                            BiFunction<KeysetCursor, Pageable, List<EventDto>> query) {
+        int size = keysetPaging.pageSize(limit);
+        KeysetCursor position = keysetPaging.position(cursor, KeysetCursor.ASCENDING_START);
+        Supplier<CursorPageDto<EventDto>> loader = () -> keysetPaging.page(query.apply(position, keysetPaging.fetch(size)), size,
+            event -> new KeysetCursor(event.getEventDate(), event.getId()));
+        
+        if ((cursor == null || cursor.isBlank()) && keysetPaging.isDefaultSize(limit)) {
+            return eventCatalogCache.get(cache, EventCatalogCache.FIRST_PAGE, LISTING_TYPE, loader);
+        }
+        return loader.get();
+    }
+    
+    private String searchTerm(String query) {
+        String term = query == null ? "" : query.trim();
+        if (term.length() < minQueryLength) {
+            throw new BadRequestException("Search query must be at least " + minQueryLength + " characters");
+        }
+        return term;
+    }
+    
+    private int searchLimit(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, maxSearchResults)) : maxSearchResults;
     }
     
     private EventDto mapToDto(Event event) {
-        long totalTickets = ticketRepository.countByEventId(event.getId());
-        long soldTickets = ticketRepository.countByEventIdAndStatus(event.getId(), "AVAILABLE");
+        int availableTickets = inventoryService.getAvailable(event.getId());
         
         return EventDto.builder()
             .id(event.getId())
@@ -118,22 +193,12 @@ public class EventService {
             .eventDate(event.getEventDate())
             .venue(event.getVenue())
             .totalCapacity(event.getTotalCapacity())
-            .availableTickets(event.getAvailableTickets())
+            .availableTickets(availableTickets)
             .ticketPrice(event.getTicketPrice())
             .status(event.getStatus().toString())
             .createdAt(event.getCreatedAt())
             .updatedAt(event.getUpdatedAt())
+            .soldTickets(event.getTotalCapacity() - availableTickets)
             .build();
     }
-    
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
-    }
 }
@@ -0,0 +1,241 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.GateScanRecordDto;
+import com.antiscalping.tickets.dto.GateSyncDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class GateSyncService {
+    
+    private static final Set<String> ENTRY_STATUSES = Set.of("AVAILABLE", "TRANSFERRED", "CLAIMED", "VALIDATED");
+    
+    private static final String SELECT_TICKETS_SQL =
+        "SELECT id, ticket_number, status, validated_at FROM tickets " +
+        "WHERE event_id = :eventId AND ticket_number IN (:ticketNumbers)";
+    
+    // Only ever moves validated_at earlier, so concurrent syncs converge on the earliest scan
+    private static final String VALIDATE_SQL =
+        "UPDATE tickets SET status = 'VALIDATED', validated_at = ?, updated_at = ? " +
+        "WHERE id = ? AND status IN ('AVAILABLE', 'TRANSFERRED', 'CLAIMED', 'VALIDATED') " +
+        "AND (validated_at IS NULL OR validated_at > ?)";
+    
+    // Earliest device time wins; ties go to the gate name and then submission order so replays resolve identically
+    private static final Comparator<GateScanRecordDto> WINNER_ORDER = Comparator
+        .comparing(GateScanRecordDto::getScannedAt)
+        .thenComparing(GateScanRecordDto::getGate, Comparator.nullsFirst(Comparator.naturalOrder()));
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private GateValidationService gateValidationService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.gate.sync-max-records:100000}")
+    private int maxRecords;
+    
+    @Value("${app.gate.sync-chunk-size:1000}")
+    private int chunkSize;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    public GateSyncDto sync(Long eventId, Long userId, InputStream body) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can sync gate scans");
+        }
+        
+        // The body is read before the transaction starts so a slow upload never holds a connection
+        List<GateScanRecordDto> records = read(body);
+        return transactionTemplate.execute(status -> settle(eventId, userId, records));
+    }
+    
+    private List<GateScanRecordDto> read(InputStream body) {
+        List<GateScanRecordDto> records = new ArrayList<>();
+        try (MappingIterator<GateScanRecordDto> iterator = objectMapper.readerFor(GateScanRecordDto.class).readValues(body)) {
+            while (iterator.hasNextValue()) {
+                if (records.size() == maxRecords) {
+                    throw new BadRequestException("A sync may contain at most " + maxRecords + " scan records");
+                }
+                GateScanRecordDto record = iterator.nextValue();
+                records.add(record != null ? record : new GateScanRecordDto());
+            }
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException("Malformed scan records: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed scan records: " + e.getMessage());
+        }
+        return records;
+    }
+    
+    private GateSyncDto settle(Long eventId, Long userId, List<GateScanRecordDto> records) {
+        Map<String, GateScanRecordDto> candidates = new HashMap<>();
+        for (GateScanRecordDto record : records) {
+            if (isComplete(record)) {
+                candidates.merge(record.getTicketNumber(), record, (a, b) -> WINNER_ORDER.compare(a, b) <= 0 ? a : b);
+            }
+        }
+        
+        Map<String, TicketRow> tickets = loadTickets(eventId, new ArrayList<>(candidates.keySet()));
+        Map<String, LocalDateTime> admittedAt = new HashMap<>();
+        List<GateScanRecordDto> winners = new ArrayList<>();
+        
+        candidates.forEach((ticketNumber, candidate) -> {
+            TicketRow ticket = tickets.get(ticketNumber);
+            if (ticket == null || !ENTRY_STATUSES.contains(ticket.status())) {
+                return;
+            }
+            if (ticket.validatedAt() != null && !ticket.validatedAt().isAfter(candidate.getScannedAt())) {
+                admittedAt.put(ticketNumber, ticket.validatedAt());
+                return;
+            }
+            winners.add(candidate);
+        });
+        
+        Set<GateScanRecordDto> admitted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (GateScanRecordDto winner : validate(winners, tickets)) {
+            admitted.add(winner);
+            admittedAt.put(winner.getTicketNumber(), winner.getScannedAt());
+        }
+        audit(userId, admitted, tickets);
+        
+        int duplicates = 0;
+        int rejected = 0;
+        for (GateScanRecordDto record : records) {
+            TicketRow ticket = isComplete(record) ? tickets.get(record.getTicketNumber()) : null;
+            record.setTicketId(ticket != null ? ticket.id() : null);
+            if (!isComplete(record)) {
+                record.setResult("INVALID_RECORD");
+                rejected++;
+            } else if (ticket == null) {
+                record.setResult("UNKNOWN_TICKET");
+                rejected++;
+            } else if (!ENTRY_STATUSES.contains(ticket.status())) {
+                record.setResult("NOT_VALID");
+                rejected++;
+            } else if (admitted.contains(record)) {
+                record.setResult("ADMITTED");
+                record.setAdmittedAt(record.getScannedAt());
+                gateValidationService.markScanned(eventId, ticket.id());
+            } else {
+                record.setResult("DUPLICATE");
+                record.setAdmittedAt(admittedAt.get(record.getTicketNumber()));
+                duplicates++;
+            }
+        }
+        
+        log.info("Synced {} gate scans for event {}: {} admitted, {} duplicates, {} rejected",
+            records.size(), eventId, admitted.size(), duplicates, rejected);
+        
+        return GateSyncDto.builder()
+            .eventId(eventId)
+            .received(records.size())
+            .admitted(admitted.size())
+            .duplicates(duplicates)
+            .rejected(rejected)
+            .results(records)
+            .build();
+    }
+    
+    private Map<String, TicketRow> loadTickets(Long eventId, List<String> ticketNumbers) {
+        Map<String, TicketRow> tickets = new HashMap<>(ticketNumbers.size() * 4 / 3 + 1);
+        for (int from = 0; from < ticketNumbers.size(); from += chunkSize) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("eventId", eventId)
+                .addValue("ticketNumbers", ticketNumbers.subList(from, Math.min(from + chunkSize, ticketNumbers.size())));
+            namedParameterJdbcTemplate.query(SELECT_TICKETS_SQL, params, rs -> {
+                Timestamp validatedAt = rs.getTimestamp("validated_at");
+                tickets.put(rs.getString("ticket_number"), new TicketRow(
+                    rs.getLong("id"),
+                    rs.getString("status"),
+                    validatedAt != null ? validatedAt.toLocalDateTime() : null));
+            });
+        }
+        return tickets;
+    }
+    
+    // Returns the winners whose update applied; the rest lost to an earlier scan synced concurrently
+    private List<GateScanRecordDto> validate(List<GateScanRecordDto> winners, Map<String, TicketRow> tickets) {
+        List<GateScanRecordDto> applied = new ArrayList<>(winners.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < winners.size(); from += chunkSize) {
+            List<GateScanRecordDto> chunk = winners.subList(from, Math.min(from + chunkSize, winners.size()));
+            List<Object[]> updates = new ArrayList<>(chunk.size());
+            for (GateScanRecordDto winner : chunk) {
+                Timestamp scannedAt = Timestamp.valueOf(winner.getScannedAt());
+                updates.add(new Object[] { scannedAt, now, tickets.get(winner.getTicketNumber()).id(), scannedAt });
+            }
+            int[] counts = jdbcTemplate.batchUpdate(VALIDATE_SQL, updates);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    applied.add(chunk.get(i));
+                }
+            }
+        }
+        return applied;
+    }
+    
+    private void audit(Long userId, Set<GateScanRecordDto> admitted, Map<String, TicketRow> tickets) {
+        for (GateScanRecordDto record : admitted) {
+            auditService.record(userId, "TICKET_VALIDATED", "TICKET", tickets.get(record.getTicketNumber()).id(),
+                "gate=" + record.getGate() + ", scannedAt=" + record.getScannedAt());
+        }
+    }
+    
+    private boolean isComplete(GateScanRecordDto record) {
+        return record.getTicketNumber() != null && record.getScannedAt() != null;
+    }
+    
+    private record TicketRow(long id, String status, LocalDateTime validatedAt) {
+    }
+}
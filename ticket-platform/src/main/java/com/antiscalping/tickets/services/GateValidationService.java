@@ -0,0 +1,441 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.GateEntryDto;
+import com.antiscalping.tickets.dto.GateScanDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.Ticket;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.TicketRepository;
+import com.antiscalping.tickets.services.AuditWriter.AuditEvent;
+import com.antiscalping.tickets.utils.EntryRoster;
+import com.antiscalping.tickets.utils.TicketNumberGenerator;
+import com.antiscalping.tickets.verifier.QrPayloadSigner;
+import com.antiscalping.tickets.verifier.QrPayloadVerifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@Slf4j
+public class GateValidationService {
+    
+    private static final Set<Ticket.TicketStatus> ROSTER_STATUSES = EnumSet.of(
+        Ticket.TicketStatus.AVAILABLE, Ticket.TicketStatus.TRANSFERRED, Ticket.TicketStatus.CLAIMED,
+        Ticket.TicketStatus.VALIDATED);
+    
+    // Statuses a gate answers for; cancelled and refunded tickets scan as REVOKED
+    private static final Set<Ticket.TicketStatus> ENTRY_STATUSES = EnumSet.of(
+        Ticket.TicketStatus.AVAILABLE, Ticket.TicketStatus.TRANSFERRED, Ticket.TicketStatus.CLAIMED,
+        Ticket.TicketStatus.VALIDATED, Ticket.TicketStatus.CANCELLED, Ticket.TicketStatus.REFUNDED);
+    
+    private static final String VALIDATE_SQL =
+        "UPDATE tickets SET status = 'VALIDATED', validated_at = ?, updated_at = ? " +
+        "WHERE id = ? AND status IN ('AVAILABLE', 'TRANSFERRED', 'CLAIMED')";
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private AuditService auditService;
+    
+    @Autowired
+    private TicketQrService ticketQrService;
+    
+    @Autowired
+    private TicketNumberGenerator ticketNumberGenerator;
+    
+    @Autowired
+    private EntryScanStore entryScanStore;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.gate.flush-batch-size:500}")
+    private int flushBatchSize;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private final Map<Long, Gate> gates = new ConcurrentHashMap<>();
+    
+    private final Queue<Admission> pending = new ConcurrentLinkedQueue<>();
+    
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        flushPending();
+    }
+    
+    public GateEntryDto openEntry(Long eventId, Long userId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        requireOrganizer(event.getOrganizerId(), userId);
+        
+        entryScanStore.open(eventId, event.getOrganizerId());
+        Gate gate = gates.computeIfAbsent(eventId, id -> loadGate(id, event.getOrganizerId()));
+        return mapToDto(eventId, gate);
+    }
+    
+    public GateEntryDto closeEntry(Long eventId, Long userId) {
+        Gate gate = requireGate(eventId, userId);
+        // Write out every admission before the roster is dropped so nothing scanned is lost
+        flushPending();
+        entryScanStore.close(eventId);
+        gates.remove(eventId, gate);
+        log.info("Closed entry for event {}: {} of {} tickets scanned", eventId, gate.roster().scannedCount(), gate.roster().size());
+        
+        GateEntryDto dto = mapToDto(eventId, gate);
+        dto.setOpen(false);
+        return dto;
+    }
+    
+    public GateEntryDto getEntryStatus(Long eventId, Long userId) {
+        return mapToDto(eventId, requireGate(eventId, userId));
+    }
+    
+    public boolean isOpen(Long eventId) {
+        return gateFor(eventId) != null;
+    }
+    
+    public GateScanDto scan(Long eventId, Long userId, GateScanDto scanDto) {
+        Gate gate = requireGate(eventId, userId);
+        EntryRoster roster = gate.roster();
+        
+        int slot;
+        Ticket issued = null;
+        String presentedTag = null;
+        if (scanDto.getPayload() != null && !scanDto.getPayload().isBlank()) {
+            QrPayloadVerifier.Result result = ticketQrService.verify(scanDto.getPayload(), eventId);
+            if (!result.valid()) {
+                return scanResult(scanDto, null, result.status().toString());
+            }
+            presentedTag = result.payload().seedTag();
+            slot = roster.slotOf(result.payload().ticketId());
+            if (slot < 0) {
+                issued = findIssued(eventId, ticketRepository.findIssuedById(result.payload().ticketId()));
+            }
+        } else if (scanDto.getTicketNumber() != null && !scanDto.getTicketNumber().isBlank()) {
+            // A mistyped number fails its check character, so staff can re-enter it rather than turn the holder away
+            if (!ticketNumberGenerator.isPlausible(scanDto.getTicketNumber())) {
+                return scanResult(scanDto, null, "INVALID_NUMBER");
+            }
+            slot = roster.slotOf(scanDto.getTicketNumber());
+            if (slot < 0) {
+                issued = findIssued(eventId, ticketRepository.findIssuedByTicketNumber(scanDto.getTicketNumber()));
+            }
+        } else {
+            throw new BadRequestException("A QR payload or ticket number is required");
+        }
+        
+        if (slot >= 0) {
+            return scanResult(scanDto, roster.ticketId(slot), admit(eventId, gate, slot, presentedTag, userId));
+        }
+        // Issued after the roster was loaded; the database has the current state
+        if (issued == null) {
+            return scanResult(scanDto, null, "UNKNOWN_TICKET");
+        }
+        return scanResult(scanDto, issued.getId(), admit(eventId, gate, issued, presentedTag, userId));
+    }
+    
+    // Used by the single-ticket validate endpoint while an event's entry is open
+    public boolean admit(Long eventId, Long ticketId, Long userId) {
+        Gate gate = gateFor(eventId);
+        if (gate == null) {
+            throw new BadRequestException("Entry is not open for this event");
+        }
+        int slot = gate.roster().slotOf(ticketId);
+        if (slot >= 0) {
+            return "ADMITTED".equals(admit(eventId, gate, slot, null, userId));
+        }
+        Ticket issued = findIssued(eventId, ticketRepository.findIssuedById(ticketId));
+        if (issued == null) {
+            throw new BadRequestException("Ticket is not valid for entry");
+        }
+        return "ADMITTED".equals(admit(eventId, gate, issued, null, userId));
+    }
+    
+    // Cancelled tickets are refused at every node's gates once the cancellation commits
+    public void revokeAfterCommit(Long eventId, Long ticketId) {
+        afterCommit(() -> revoke(eventId, ticketId));
+    }
+    
+    private void revoke(Long eventId, Long ticketId) {
+        Gate gate = gateFor(eventId);
+        if (gate == null) {
+            return;
+        }
+        entryScanStore.revoke(eventId, ticketId);
+        int slot = gate.roster().slotOf(ticketId);
+        if (slot >= 0) {
+            gate.roster().revoke(slot);
+        }
+    }
+    
+    // A new owner gets a new seed; open rosters switch to it once the change commits, so the
+    // previous owner's codes scan as STALE_CODE while the new owner's are admitted
+    public void reissueAfterCommit(Long eventId, Long ticketId, String qrSeed) {
+        String seedTag = QrPayloadSigner.seedTag(qrSeed);
+        afterCommit(() -> reissue(eventId, ticketId, seedTag));
+    }
+    
+    private void reissue(Long eventId, Long ticketId, String seedTag) {
+        Gate gate = gateFor(eventId);
+        if (gate == null) {
+            return;
+        }
+        entryScanStore.reissue(eventId, ticketId, seedTag);
+        int slot = gate.roster().slotOf(ticketId);
+        if (slot >= 0) {
+            gate.roster().reissue(slot, seedTag);
+        }
+    }
+    
+    // Scans synced from offline devices must also block the live gates
+    public void markScanned(Long eventId, Long ticketId) {
+        Gate gate = gateFor(eventId);
+        if (gate == null) {
+            return;
+        }
+        entryScanStore.markScanned(eventId, ticketId);
+        int slot = gate.roster().slotOf(ticketId);
+        if (slot >= 0) {
+            gate.roster().claim(slot);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.gate.flush-interval-ms:250}")
+    public void flushPending() {
+        while (pendingCount.get() > 0) {
+            List<Admission> batch = new ArrayList<>(Math.min(pendingCount.get(), flushBatchSize));
+            Admission admission;
+            while (batch.size() < flushBatchSize && (admission = pending.poll()) != null) {
+                batch.add(admission);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            pendingCount.addAndGet(-batch.size());
+            
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+            } catch (Exception e) {
+                // Admissions stay queued and are retried on the next tick
+                log.error("Failed to persist {} gate admissions", batch.size(), e);
+                pending.addAll(batch);
+                pendingCount.addAndGet(batch.size());
+                return;
+            }
+        }
+    }
+    
+    private String admit(Long eventId, Gate gate, int slot, String presentedTag, Long userId) {
+        EntryRoster roster = gate.roster();
+        // The local bits only spare a round trip for repeats this node has already seen
+        if (roster.isRevoked(slot)) {
+            return "REVOKED";
+        }
+        if (roster.isScanned(slot)) {
+            return "ALREADY_SCANNED";
+        }
+        String result = claim(eventId, gate, roster.ticketId(slot), presentedTag, roster.seedTag(slot), userId);
+        if ("ADMITTED".equals(result) || "ALREADY_SCANNED".equals(result)) {
+            roster.claim(slot);
+        } else if ("REVOKED".equals(result)) {
+            roster.revoke(slot);
+        }
+        return result;
+    }
+    
+    private String admit(Long eventId, Gate gate, Ticket ticket, String presentedTag, Long userId) {
+        if (ticket.getStatus() == Ticket.TicketStatus.VALIDATED) {
+            return "ALREADY_SCANNED";
+        }
+        if (ticket.getStatus() == Ticket.TicketStatus.CANCELLED || ticket.getStatus() == Ticket.TicketStatus.REFUNDED) {
+            return "REVOKED";
+        }
+        return claim(eventId, gate, ticket.getId(), presentedTag, QrPayloadSigner.seedTag(ticket.getQrSeed()), userId);
+    }
+    
+    // The shared store decides the first scan, so a ticket is admitted once however many nodes run the gates
+    private String claim(Long eventId, Gate gate, long ticketId, String presentedTag, String rosterTag, Long userId) {
+        EntryScanStore.Claim claim;
+        try {
+            claim = entryScanStore.claim(eventId, ticketId, presentedTag, rosterTag);
+        } catch (DataAccessException e) {
+            log.warn("Entry scan store unavailable for event {}, validating ticket {} in the database", eventId, ticketId, e);
+            if (presentedTag != null && !presentedTag.equals(rosterTag)) {
+                return "STALE_CODE";
+            }
+            return validateNow(ticketId, userId) ? "ADMITTED" : "ALREADY_SCANNED";
+        }
+        
+        if (claim == EntryScanStore.Claim.CLOSED) {
+            // Closed from another node
+            gates.remove(eventId, gate);
+            throw new BadRequestException("Entry is not open for this event");
+        }
+        if (claim == EntryScanStore.Claim.REVOKED) {
+            return "REVOKED";
+        }
+        if (claim == EntryScanStore.Claim.STALE) {
+            return "STALE_CODE";
+        }
+        if (claim == EntryScanStore.Claim.ALREADY_SCANNED) {
+            return "ALREADY_SCANNED";
+        }
+        pending.add(new Admission(ticketId, userId, LocalDateTime.now()));
+        pendingCount.incrementAndGet();
+        return "ADMITTED";
+    }
+    
+    // Without the shared store the conditional update's row count is the first-scan check
+    private boolean validateNow(long ticketId, Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp at = Timestamp.valueOf(now);
+        if (jdbcTemplate.update(VALIDATE_SQL, at, at, ticketId) == 0) {
+            return false;
+        }
+        auditService.record(new AuditEvent(userId, "TICKET_VALIDATED", "TICKET", ticketId, null, now));
+        return true;
+    }
+    
+    private void write(List<Admission> batch) {
+        List<Object[]> updates = new ArrayList<>(batch.size());
+        for (Admission admission : batch) {
+            Timestamp at = Timestamp.valueOf(admission.at());
+            updates.add(new Object[] { at, at, admission.ticketId() });
+            auditService.record(new AuditEvent(admission.userId(), "TICKET_VALIDATED", "TICKET", admission.ticketId(), null, admission.at()));
+        }
+        jdbcTemplate.batchUpdate(VALIDATE_SQL, updates);
+    }
+    
+    private Gate loadGate(Long eventId, String organizerId) {
+        List<Object[]> rows = ticketRepository.findEntryRoster(eventId, ROSTER_STATUSES);
+        List<EntryRoster.Entry> entries = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            entries.add(new EntryRoster.Entry(
+                (Long) row[0],
+                (String) row[1],
+                QrPayloadSigner.seedTag((String) row[2]),
+                row[3] == Ticket.TicketStatus.VALIDATED));
+        }
+        
+        log.info("Opened entry for event {} with {} tickets", eventId, entries.size());
+        return new Gate(new EntryRoster(entries), organizerId, LocalDateTime.now());
+    }
+    
+    // Entry may be opened or closed through any node; the shared store says which, and this node
+    // loads its own roster the first time it sees an open event
+    private Gate gateFor(Long eventId) {
+        String organizerId;
+        try {
+            organizerId = entryScanStore.organizerOf(eventId);
+        } catch (DataAccessException e) {
+            log.warn("Entry scan store unavailable, using this node's gates for event {}", eventId, e);
+            return gates.get(eventId);
+        }
+        if (organizerId == null) {
+            gates.remove(eventId);
+            return null;
+        }
+        return gates.computeIfAbsent(eventId, id -> loadGate(id, organizerId));
+    }
+    
+    // Roster misses fall back to the database only for tickets of this event
+    private Ticket findIssued(Long eventId, Optional<Ticket> ticket) {
+        return ticket.filter(t -> t.getEvent().getId().equals(eventId))
+            .filter(t -> ENTRY_STATUSES.contains(t.getStatus()))
+            .orElse(null);
+    }
+    
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    private Gate requireGate(Long eventId, Long userId) {
+        Gate gate = gateFor(eventId);
+        if (gate == null) {
+            throw new BadRequestException("Entry is not open for this event");
+        }
+        requireOrganizer(gate.organizerId(), userId);
+        return gate;
+    }
+    
+    private void requireOrganizer(String organizerId, Long userId) {
+        if (!organizerId.equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can run entry");
+        }
+    }
+    
+    private GateScanDto scanResult(GateScanDto scanDto, Long ticketId, String result) {
+        return GateScanDto.builder()
+            .payload(scanDto.getPayload())
+            .ticketNumber(scanDto.getTicketNumber())
+            .ticketId(ticketId)
+            .admitted("ADMITTED".equals(result))
+            .result(result)
+            .build();
+    }
+    
+    private GateEntryDto mapToDto(Long eventId, Gate gate) {
+        return GateEntryDto.builder()
+            .eventId(eventId)
+            .open(true)
+            .tickets(gate.roster().size())
+            .scanned(gate.roster().scannedCount())
+            .pendingWrites(pendingCount.get())
+            .openedAt(gate.openedAt())
+            .build();
+    }
+    
+    private record Gate(EntryRoster roster, String organizerId, LocalDateTime openedAt) {
+    }
+    
+    private record Admission(long ticketId, Long userId, LocalDateTime at) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.antiscalping.tickets.services;
+
+public interface IdempotencyStore {
+    
+    StoredResponse get(String key);
+    
+    // Marks the key as in flight so duplicates on other instances wait instead of re-executing.
+    // Returns the owner token to unlock with, or null when another request holds the lock
+    String tryLock(String key, long lockTtlMs);
+    
+    void complete(String key, StoredResponse response, long ttlMs);
+    
+    // Only releases the lock if it is still held under this token
+    void unlock(String key, String token);
+    
+    record StoredResponse(String fingerprint, int status, String contentType, String body) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(prefix = "app.queue", name = "store", havingValue = "memory")
+public class InMemoryAdmissionQueueStore implements AdmissionQueueStore {
+    
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    
+    @Override
+    public long enqueue(Long eventId, String member) {
+        long[] rank = new long[1];
+        queues.compute(eventId, (id, queue) -> {
+            EventQueue current = queue != null ? queue : new EventQueue();
+            rank[0] = current.enqueue(member);
+            return current;
+        });
+        return rank[0];
+    }
+    
+    @Override
+    public Long rank(Long eventId, String member) {
+        EventQueue queue = queues.get(eventId);
+        return queue != null ? queue.rank(member) : null;
+    }
+    
+    @Override
+    public long waitingCount(Long eventId) {
+        EventQueue queue = queues.get(eventId);
+        return queue != null ? queue.waitingCount() : 0;
+    }
+    
+    @Override
+    public List<String> admitNext(Long eventId, int count, long admittedUntil) {
+        EventQueue queue = queues.get(eventId);
+        return queue != null ? queue.admitNext(count, admittedUntil) : List.of();
+    }
+    
+    @Override
+    public boolean isAdmitted(Long eventId, String member, long now) {
+        EventQueue queue = queues.get(eventId);
+        return queue != null && queue.isAdmitted(member, now);
+    }
+    
+    @Override
+    public void revokeAdmission(Long eventId, String member) {
+        EventQueue queue = queues.get(eventId);
+        if (queue != null) {
+            queue.admitted.remove(member);
+        }
+    }
+    
+    @Override
+    public void expireAdmissions(Long eventId, long now) {
+        EventQueue queue = queues.get(eventId);
+        if (queue != null) {
+            queue.admitted.values().removeIf(admittedUntil -> admittedUntil <= now);
+            queues.computeIfPresent(eventId, (id, current) -> current.isEmpty() ? null : current);
+        }
+    }
+    
+    @Override
+    public boolean acquireTick(Long eventId, long tick) {
+        return true;
+    }
+    
+    @Override
+    public Set<Long> activeEvents() {
+        return Set.copyOf(queues.keySet());
+    }
+    
+    private static class EventQueue {
+        
+        private final ArrayDeque<String> waiting = new ArrayDeque<>();
+        
+        private final Map<String, Long> sequences = new HashMap<>();
+        
+        private final Map<String, Long> admitted = new ConcurrentHashMap<>();
+        
+        private long nextSequence;
+        
+        private long admittedSequence;
+        
+        // Members only leave from the head, so rank is the distance from the last admitted sequence
+        synchronized long enqueue(String member) {
+            Long sequence = sequences.get(member);
+            if (sequence == null) {
+                sequence = nextSequence++;
+                sequences.put(member, sequence);
+                waiting.addLast(member);
+            }
+            return sequence - admittedSequence;
+        }
+        
+        synchronized Long rank(String member) {
+            Long sequence = sequences.get(member);
+            return sequence != null ? sequence - admittedSequence : null;
+        }
+        
+        synchronized long waitingCount() {
+            return waiting.size();
+        }
+        
+        synchronized List<String> admitNext(int count, long admittedUntil) {
+            List<String> members = new ArrayList<>(Math.min(count, waiting.size()));
+            while (members.size() < count && !waiting.isEmpty()) {
+                String member = waiting.pollFirst();
+                sequences.remove(member);
+                admitted.put(member, admittedUntil);
+                admittedSequence++;
+                members.add(member);
+            }
+            return members;
+        }
+        
+        boolean isAdmitted(String member, long now) {
+            Long admittedUntil = admitted.get(member);
+            return admittedUntil != null && admittedUntil > now;
+        }
+        
+        synchronized boolean isEmpty() {
+            return waiting.isEmpty() && admitted.isEmpty();
+        }
+    }
+}
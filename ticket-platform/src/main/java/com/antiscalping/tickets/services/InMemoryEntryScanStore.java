@@ -0,0 +1,74 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-node fallback: only correct when every gate for an event talks to the same instance
+@Component
+@ConditionalOnProperty(prefix = "app.gate", name = "store", havingValue = "memory")
+public class InMemoryEntryScanStore implements EntryScanStore {
+    
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    
+    @Override
+    public void open(Long eventId, String organizerId) {
+        entries.putIfAbsent(eventId, new Entry(organizerId, ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(),
+            new ConcurrentHashMap<>()));
+    }
+    
+    @Override
+    public String organizerOf(Long eventId) {
+        Entry entry = entries.get(eventId);
+        return entry != null ? entry.organizerId() : null;
+    }
+    
+    @Override
+    public void close(Long eventId) {
+        entries.remove(eventId);
+    }
+    
+    @Override
+    public Claim claim(Long eventId, long ticketId, String presentedTag, String rosterTag) {
+        Entry entry = entries.get(eventId);
+        if (entry == null) {
+            return Claim.CLOSED;
+        }
+        if (entry.revoked().contains(ticketId)) {
+            return Claim.REVOKED;
+        }
+        if (presentedTag != null && !presentedTag.equals(entry.seedTags().getOrDefault(ticketId, rosterTag))) {
+            return Claim.STALE;
+        }
+        return entry.scanned().add(ticketId) ? Claim.CLAIMED : Claim.ALREADY_SCANNED;
+    }
+    
+    @Override
+    public void markScanned(Long eventId, long ticketId) {
+        Entry entry = entries.get(eventId);
+        if (entry != null) {
+            entry.scanned().add(ticketId);
+        }
+    }
+    
+    @Override
+    public void revoke(Long eventId, long ticketId) {
+        Entry entry = entries.get(eventId);
+        if (entry != null) {
+            entry.revoked().add(ticketId);
+        }
+    }
+    
+    @Override
+    public void reissue(Long eventId, long ticketId, String seedTag) {
+        Entry entry = entries.get(eventId);
+        if (entry != null) {
+            entry.seedTags().put(ticketId, seedTag);
+        }
+    }
+    
+    private record Entry(String organizerId, Set<Long> scanned, Set<Long> revoked, Map<Long, String> seedTags) {
+    }
+}
@@ -0,0 +1,209 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.repositories.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Trigram index over active events for deployments without pg_trgm; each instance keeps its own copy,
+// so it only sees events created or cancelled through this instance until the next restart
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "engine", havingValue = "memory")
+@Slf4j
+public class InMemoryEventSearchIndex implements EventSearchIndex {
+    
+    // Separates the lower-cased suggestion from its original spelling in the autocomplete keys
+    private static final char SEPARATOR = '\u0000';
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Value("${app.search.similarity-threshold:0.3}")
+    private double similarityThreshold;
+    
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    
+    private final NavigableMap<String, Set<Long>> suggestions = new ConcurrentSkipListMap<>();
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Event> events = eventRepository.findByStatus(Event.EventStatus.ACTIVE);
+        events.forEach(this::indexDocument);
+        log.info("Event search index built for {} events", events.size());
+    }
+    
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        String normalized = normalize(query);
+        Set<String> queryGrams = trigrams(normalized);
+        if (queryGrams.isEmpty()) {
+            return List.of();
+        }
+        
+        Set<Long> candidates = new HashSet<>();
+        for (String gram : queryGrams) {
+            candidates.addAll(postings.getOrDefault(gram, Set.of()));
+        }
+        
+        List<Scored> scored = new ArrayList<>();
+        for (Long eventId : candidates) {
+            Document document = documents.get(eventId);
+            if (document == null) {
+                continue;
+            }
+            // Share of the query's trigrams found in the field, close to pg_trgm's word_similarity
+            double similarity = Math.max(overlap(queryGrams, document.nameGrams()), overlap(queryGrams, document.venueGrams()))
+                / queryGrams.size();
+            boolean contains = document.name().contains(normalized) || document.venue().contains(normalized);
+            if (similarity < similarityThreshold && !contains) {
+                continue;
+            }
+            boolean prefix = document.name().startsWith(normalized) || document.venue().startsWith(normalized);
+            scored.add(new Scored(document, similarity + (prefix ? 1 : 0)));
+        }
+        
+        return scored.stream()
+            .sorted(Comparator.comparingDouble(Scored::score).reversed()
+                .thenComparing(scoredHit -> scoredHit.document().eventDate(), Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(scoredHit -> scoredHit.document().eventId()))
+            .limit(limit)
+            .map(scoredHit -> new SearchHit(scoredHit.document().eventId(), scoredHit.score()))
+            .toList();
+    }
+    
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        String normalized = prefix.toLowerCase(Locale.ROOT);
+        List<String> matches = new ArrayList<>(limit);
+        for (Map.Entry<String, Set<Long>> entry : suggestions.tailMap(normalized, true).entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(normalized) || matches.size() >= limit) {
+                break;
+            }
+            if (!entry.getValue().isEmpty()) {
+                matches.add(key.substring(key.indexOf(SEPARATOR) + 1));
+            }
+        }
+        return matches;
+    }
+    
+    // Applied after commit so a rolled-back event never shows up in results
+    @Override
+    public void index(Event event) {
+        afterCommit(() -> indexDocument(event));
+    }
+    
+    @Override
+    public void remove(Long eventId) {
+        afterCommit(() -> removeDocument(eventId));
+    }
+    
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+    
+    // Writes are rare next to searches, so they are serialized and reads stay lock-free
+    private synchronized void indexDocument(Event event) {
+        removeDocument(event.getId());
+        if (event.getStatus() != Event.EventStatus.ACTIVE) {
+            return;
+        }
+        String name = normalize(event.getName());
+        String venue = normalize(event.getVenue());
+        Document document = new Document(event.getId(), name, venue, trigrams(name), trigrams(venue),
+            suggestionKey(event.getName()), suggestionKey(event.getVenue()), event.getEventDate());
+        documents.put(event.getId(), document);
+        
+        Set<String> grams = new HashSet<>(document.nameGrams());
+        grams.addAll(document.venueGrams());
+        grams.forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(event.getId()));
+        for (String key : List.of(document.nameKey(), document.venueKey())) {
+            suggestions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(event.getId());
+        }
+    }
+    
+    private synchronized void removeDocument(Long eventId) {
+        Document document = documents.remove(eventId);
+        if (document == null) {
+            return;
+        }
+        Set<String> grams = new HashSet<>(document.nameGrams());
+        grams.addAll(document.venueGrams());
+        for (String gram : grams) {
+            postings.computeIfPresent(gram, (g, ids) -> ids.remove(eventId) && ids.isEmpty() ? null : ids);
+        }
+        for (String key : List.of(document.nameKey(), document.venueKey())) {
+            suggestions.computeIfPresent(key, (k, ids) -> ids.remove(eventId) && ids.isEmpty() ? null : ids);
+        }
+    }
+    
+    private static int overlap(Set<String> queryGrams, Set<String> fieldGrams) {
+        int shared = 0;
+        for (String gram : queryGrams) {
+            if (fieldGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return shared;
+    }
+    
+    // Trigrams of each alphanumeric word padded like pg_trgm: two spaces before, one after
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String suggestionKey(String text) {
+        String value = text == null ? "" : text.trim();
+        return value.toLowerCase(Locale.ROOT) + SEPARATOR + value;
+    }
+    
+    private record Document(Long eventId, String name, String venue, Set<String> nameGrams, Set<String> venueGrams,
+                            String nameKey, String venueKey, LocalDateTime eventDate) {
+    }
+    
+    private record Scored(Document document, double score) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "memory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    
+    private final Map<String, Expiring<StoredResponse>> responses = new ConcurrentHashMap<>();
+    
+    private final Map<String, Lock> locks = new ConcurrentHashMap<>();
+    
+    @Override
+    public StoredResponse get(String key) {
+        Expiring<StoredResponse> entry = responses.get(key);
+        if (entry == null || entry.expiresAt() <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry.value();
+    }
+    
+    @Override
+    public String tryLock(String key, long lockTtlMs) {
+        long now = System.currentTimeMillis();
+        Lock mine = new Lock(UUID.randomUUID().toString(), now + lockTtlMs);
+        Lock held = locks.compute(key, (k, lock) -> lock != null && lock.expiresAt() > now ? lock : mine);
+        return held == mine ? mine.token() : null;
+    }
+    
+    @Override
+    public void complete(String key, StoredResponse response, long ttlMs) {
+        responses.put(key, new Expiring<>(response, System.currentTimeMillis() + ttlMs));
+    }
+    
+    @Override
+    public void unlock(String key, String token) {
+        locks.computeIfPresent(key, (k, lock) -> lock.token().equals(token) ? null : lock);
+    }
+    
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        responses.values().removeIf(entry -> entry.expiresAt() <= now);
+        locks.values().removeIf(lock -> lock.expiresAt() <= now);
+    }
+    
+    private record Expiring<T>(T value, long expiresAt) {
+    }
+    
+    private record Lock(String token, long expiresAt) {
+    }
+}
@@ -0,0 +1,195 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.Ticket;
+import com.antiscalping.tickets.entities.TicketHold;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.TicketHoldRepository;
+import com.antiscalping.tickets.repositories.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class InventoryService {
+    
+    private static final Set<Ticket.TicketStatus> UNISSUED_STATUSES =
+        EnumSet.of(Ticket.TicketStatus.UNSOLD, Ticket.TicketStatus.CANCELLED, Ticket.TicketStatus.REFUNDED);
+    
+    private static final Set<TicketHold.HoldStatus> HELD_STATUSES =
+        EnumSet.of(TicketHold.HoldStatus.ACTIVE, TicketHold.HoldStatus.CONFIRMING);
+    
+    @Autowired
+    private InventoryStore inventoryStore;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private TicketHoldRepository ticketHoldRepository;
+    
+    @Autowired
+    private EventCatalogCache eventCatalogCache;
+    
+    @Value("${app.inventory.aggregate-cache-ms:500}")
+    private long aggregateCacheMs;
+    
+    private final Set<Long> dirtyEvents = ConcurrentHashMap.newKeySet();
+    
+    private final Map<Long, CachedTotal> cachedTotals = new ConcurrentHashMap<>();
+    
+    public boolean reserve(Long eventId, int quantity) {
+        long result = inventoryStore.reserve(eventId, quantity);
+        if (result == InventoryStore.NOT_LOADED) {
+            loadCounter(eventId);
+            result = inventoryStore.reserve(eventId, quantity);
+        }
+        if (result < 0) {
+            return false;
+        }
+        markChanged(eventId);
+        return true;
+    }
+    
+    public void release(Long eventId, int quantity) {
+        if (inventoryStore.release(eventId, quantity) == InventoryStore.NOT_LOADED) {
+            loadCounter(eventId);
+        }
+        markChanged(eventId);
+    }
+    
+    public void releaseAfterCommit(Long eventId, int quantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(eventId, quantity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(eventId, quantity);
+            }
+        });
+    }
+    
+    // The striped store's buckets reference the events row, so they can only be created once it has
+    // committed; a counter that is still missing is loaded on the first reserve anyway
+    public void initializeAfterCommit(Long eventId, int available) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            inventoryStore.initialize(eventId, available);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                inventoryStore.initialize(eventId, available);
+            }
+        });
+    }
+    
+    public int getAvailable(Long eventId) {
+        long now = System.currentTimeMillis();
+        CachedTotal cached = cachedTotals.get(eventId);
+        if (cached != null && cached.expiresAt() > now) {
+            return (int) cached.available();
+        }
+        
+        long available = inventoryStore.getAvailable(eventId);
+        if (available == InventoryStore.NOT_LOADED) {
+            available = loadCounter(eventId);
+        }
+        cachedTotals.put(eventId, new CachedTotal(available, now + aggregateCacheMs));
+        return (int) available;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCounters() {
+        Map<Long, Long> issued = countIssuedTickets();
+        for (Object[] row : ticketHoldRepository.sumQuantityByStatusInGroupByEvent(HELD_STATUSES)) {
+            issued.merge((Long) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        List<Event> events = eventRepository.findByStatus(Event.EventStatus.ACTIVE);
+        int rebuilt = 0;
+        
+        for (Event event : events) {
+            long available = event.getTotalCapacity() - issued.getOrDefault(event.getId(), 0L);
+            if (inventoryStore.initialize(event.getId(), Math.max(available, 0))) {
+                rebuilt++;
+                dirtyEvents.add(event.getId());
+            }
+        }
+        
+        log.info("Inventory counters rebuilt for {} of {} active events", rebuilt, events.size());
+    }
+    
+    // The inventory store is authoritative during the on-sale; the events row only trails it.
+    // Cached catalog entries are invalidated here too, at most once per interval per event
+    @Scheduled(fixedDelayString = "${app.inventory.reconcile-interval-ms:1000}")
+    @Transactional
+    public void reconcile() {
+        if (dirtyEvents.isEmpty()) {
+            return;
+        }
+        List<Long> changed = List.copyOf(dirtyEvents);
+        dirtyEvents.removeAll(changed);
+        
+        if (!inventoryStore.persistsToEventRow()) {
+            for (Long eventId : changed) {
+                long available = inventoryStore.getAvailable(eventId);
+                if (available != InventoryStore.NOT_LOADED) {
+                    eventRepository.updateAvailableTickets(eventId, (int) available);
+                }
+            }
+        }
+        eventCatalogCache.evictEventsAfterCommit(changed);
+    }
+    
+    private void markChanged(Long eventId) {
+        dirtyEvents.add(eventId);
+        cachedTotals.remove(eventId);
+    }
+    
+    private long loadCounter(Long eventId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        
+        long issued = ticketRepository.countByEventIdAndStatusNotIn(eventId, UNISSUED_STATUSES)
+            + ticketHoldRepository.sumQuantityByEventIdAndStatusIn(eventId, HELD_STATUSES);
+        long available = Math.max(event.getTotalCapacity() - issued, 0);
+        
+        if (inventoryStore.initialize(eventId, available)) {
+            log.debug("Loaded inventory counter for event {}: {}", eventId, available);
+            return available;
+        }
+        long current = inventoryStore.getAvailable(eventId);
+        return current != InventoryStore.NOT_LOADED ? current : available;
+    }
+    
+    private Map<Long, Long> countIssuedTickets() {
+        Map<Long, Long> issued = new HashMap<>();
+        for (Object[] row : ticketRepository.countByStatusNotInGroupByEvent(UNISSUED_STATUSES)) {
+            issued.put((Long) row[0], (Long) row[1]);
+        }
+        return issued;
+    }
+    
+    private record CachedTotal(long available, long expiresAt) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.antiscalping.tickets.services;
+
+public interface InventoryStore {
+    
+    long NOT_LOADED = -2;
+    
+    long SOLD_OUT = -1;
+    
+    long reserve(Long eventId, int quantity);
+    
+    long release(Long eventId, int quantity);
+    
+    boolean initialize(Long eventId, long available);
+    
+    long getAvailable(Long eventId);
+    
+    // Stores that decrement events.available_tickets directly must not be overwritten by reconciliation
+    default boolean persistsToEventRow() {
+        return false;
+    }
+}
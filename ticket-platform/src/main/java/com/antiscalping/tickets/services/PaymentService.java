@@ -2,18 +2,16 @@ package com.antiscalping.tickets.services;
 
 import com.antiscalping.tickets.entities.Payment;
 import com.antiscalping.tickets.entities.User;
-import com.antiscalping.tickets.entities.AuditLog;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.PaymentRepository;
 import com.antiscalping.tickets.repositories.UserRepository;
-import com.antiscalping.tickets.repositories.AuditLogRepository;
+import com.antiscalping.tickets.utils.EntropyPool;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Service
 @Transactional
@@ -27,7 +25,10 @@ public class PaymentService {
     private UserRepository userRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
+    
+    @Autowired
+    private EntropyPool entropyPool;
     
     public Payment processPayment(Long userId, Double amount, Payment.PaymentGateway gateway) {
         User user = userRepository.findById(userId)
@@ -42,7 +43,7 @@ public class PaymentService {
             .amount(amount)
             .status(Payment.PaymentStatus.PENDING)
             .gateway(gateway)
-            .gatewayTransactionId(UUID.randomUUID().toString())
+            .gatewayTransactionId(entropyPool.nextToken())
             .description("Ticket purchase")
             .build();
         
@@ -51,7 +52,7 @@ public class PaymentService {
         // Simulate payment processing
         simulatePaymentGateway(savedPayment);
         
-        logAudit(userId, "PAYMENT_PROCESSED", "PAYMENT", savedPayment.getId(), null);
+        auditService.record(userId, "PAYMENT_PROCESSED", "PAYMENT", savedPayment.getId(), null);
         
         return savedPayment;
     }
@@ -72,7 +73,7 @@ public class PaymentService {
         payment.setStatus(Payment.PaymentStatus.REFUNDED);
         paymentRepository.save(payment);
         
-        logAudit(userId, "PAYMENT_REFUNDED", "PAYMENT", paymentId, null);
+        auditService.record(userId, "PAYMENT_REFUNDED", "PAYMENT", paymentId, null);
     }
     
     private void simulatePaymentGateway(Payment payment) {
@@ -86,15 +87,4 @@ public class PaymentService {
         }
         paymentRepository.save(payment);
     }
-    
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
-    }
 }
@@ -5,6 +5,7 @@ import com.antiscalping.tickets.entities.*;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.*;
+import com.antiscalping.tickets.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -31,13 +32,19 @@ public class PoolTicketService {
     private UserRepository userRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
+    
+    @Autowired
+    private SecurityUtils securityUtils;
+    
+    @Autowired
+    private GateValidationService gateValidationService;
     
     public PoolTicketDto addToPool(Long ticketId, Long userId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findIssuedById(ticketId)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         
-        if (!ticket.getUser().getId().equals(userId)) {
+        if (ticket.getUser() == null || !ticket.getUser().getId().equals(userId)) {
             throw new BadRequestException("You are not the owner of this ticket");
         }
         
@@ -56,7 +63,7 @@ public class PoolTicketService {
         
         PoolTicket savedPoolTicket = poolTicketRepository.save(poolTicket);
         
-        logAudit(userId, "TICKET_ADDED_TO_POOL", "POOL_TICKET", savedPoolTicket.getId(), null);
+        auditService.record(userId, "TICKET_ADDED_TO_POOL", "POOL_TICKET", savedPoolTicket.getId(), null);
         
         return mapToDto(savedPoolTicket);
     }
@@ -78,7 +85,7 @@ public class PoolTicketService {
         
         PoolTicket savedPoolTicket = poolTicketRepository.save(poolTicket);
         
-        logAudit(nominerUserId, "USER_NOMINATED_FOR_POOL", "POOL_TICKET", poolTicketId, null);
+        auditService.record(nominerUserId, "USER_NOMINATED_FOR_POOL", "POOL_TICKET", poolTicketId, null);
         
         return mapToDto(savedPoolTicket);
     }
@@ -105,14 +112,17 @@ public class PoolTicketService {
         
         ticket.setUser(claimingUser);
         ticket.setIsPooled(false);
+        // Codes the previous owner saved or screenshotted must not get anyone in
+        ticket.setQrSeed(securityUtils.generateQRSeed());
         ticketRepository.save(ticket);
+        gateValidationService.reissueAfterCommit(ticket.getEvent().getId(), ticket.getId(), ticket.getQrSeed());
         
         poolTicket.setStatus(PoolTicket.PoolStatus.CLAIMED);
         poolTicket.setClaimedAt(LocalDateTime.now());
         
         PoolTicket savedPoolTicket = poolTicketRepository.save(poolTicket);
         
-        logAudit(userId, "POOL_TICKET_CLAIMED", "POOL_TICKET", poolTicketId, null);
+        auditService.record(userId, "POOL_TICKET_CLAIMED", "POOL_TICKET", poolTicketId, null);
         
         return mapToDto(savedPoolTicket);
     }
@@ -138,15 +148,4 @@ public class PoolTicketService {
             .claimedAt(poolTicket.getClaimedAt())
             .build();
     }
-    
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
-    }
 }
@@ -0,0 +1,82 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import java.util.List;
+
+// Both predicates are answered from the pg_trgm GIN indexes on events.name and events.venue (V10)
+@Component
+@ConditionalOnProperty(prefix = "app.search", name = "engine", havingValue = "postgres", matchIfMissing = true)
+public class PostgresEventSearchIndex implements EventSearchIndex {
+    
+    // <% matches when some extent of the name or venue is similar to the whole query, so "madisn sq"
+    // finds "Madison Square Garden"; plain substrings also match, and prefixes of the name rank first
+    private static final String SEARCH_SQL =
+        "SELECT id, GREATEST(word_similarity(:query, name), word_similarity(:query, venue)) " +
+        "+ CASE WHEN name ILIKE :prefix OR venue ILIKE :prefix THEN 1 ELSE 0 END AS score " +
+        "FROM events WHERE status = 'ACTIVE' " +
+        "AND (:query <% name OR :query <% venue OR name ILIKE :contains OR venue ILIKE :contains) " +
+        "ORDER BY score DESC, event_date, id LIMIT :limit";
+    
+    private static final String SUGGEST_SQL =
+        "SELECT value FROM (" +
+        "SELECT name AS value FROM events WHERE status = 'ACTIVE' AND name ILIKE :prefix " +
+        "UNION SELECT venue FROM events WHERE status = 'ACTIVE' AND venue ILIKE :prefix) suggestions " +
+        "ORDER BY length(value), value LIMIT :limit";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.search.similarity-threshold:0.3}")
+    private double similarityThreshold;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+    
+    @Override
+    public List<SearchHit> search(String query, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("query", query)
+            .addValue("prefix", escapeLike(query) + "%")
+            .addValue("contains", "%" + escapeLike(query) + "%")
+            .addValue("limit", limit);
+        // The threshold is a session setting; SET LOCAL keeps it from leaking to the pooled connection
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.word_similarity_threshold', ?, true)", String.class,
+                Double.toString(similarityThreshold));
+            return namedParameterJdbcTemplate.query(SEARCH_SQL, params,
+                (rs, rowNum) -> new SearchHit(rs.getLong("id"), rs.getDouble("score")));
+        });
+    }
+    
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("prefix", escapeLike(prefix) + "%")
+            .addValue("limit", limit);
+        return namedParameterJdbcTemplate.queryForList(SUGGEST_SQL, params, String.class);
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,241 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.TicketDto;
+import com.antiscalping.tickets.dto.TicketPurchaseDto;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class PurchaseCoalescer {
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Value("${app.purchase.coalescing.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.purchase.coalescing.window-ms:5}")
+    private long windowMs;
+    
+    @Value("${app.purchase.coalescing.max-batch:64}")
+    private int maxBatch;
+    
+    @Value("${app.purchase.coalescing.flush-threads:4}")
+    private int flushThreads;
+    
+    @Value("${app.purchase.coalescing.wait-ms:10000}")
+    private long waitMs;
+    
+    private ScheduledExecutorService flusher;
+    
+    private final Map<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            flusher = Executors.newScheduledThreadPool(flushThreads);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public List<TicketDto> purchase(Long userId, TicketPurchaseDto purchaseDto) {
+        Long eventId = purchaseDto.getEventId();
+        PendingPurchase pending = new PendingPurchase(
+            new TicketService.TicketOrder(userId, purchaseDto.getQuantity()), new CompletableFuture<>());
+        
+        EventQueue queue = queues.computeIfAbsent(eventId, id -> new EventQueue());
+        queue.pending.add(pending);
+        
+        if (queue.size.incrementAndGet() >= maxBatch) {
+            flusher.execute(() -> flush(eventId, queue));
+        } else if (queue.scheduled.compareAndSet(false, true)) {
+            flusher.schedule(() -> flush(eventId, queue), windowMs, TimeUnit.MILLISECONDS);
+        }
+        
+        try {
+            return pending.result().get(waitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Failing the future first means a batch that has not reached this purchase yet skips it
+            if (pending.result().completeExceptionally(e)) {
+                throw new IllegalStateException("Timed out waiting for ticket purchase", e);
+            }
+            return join(pending);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ticket purchase failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for ticket purchase", e);
+        }
+    }
+    
+    private List<TicketDto> join(PendingPurchase pending) {
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Ticket purchase failed", e.getCause());
+        }
+    }
+    
+    private void flush(Long eventId, EventQueue queue) {
+        queue.scheduled.set(false);
+        
+        List<PendingPurchase> batch = new ArrayList<>();
+        PendingPurchase pending;
+        while (batch.size() < maxBatch && (pending = queue.pending.poll()) != null) {
+            batch.add(pending);
+            queue.size.decrementAndGet();
+        }
+        if (!queue.pending.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> flush(eventId, queue));
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        try {
+            process(eventId, batch);
+        } catch (Throwable e) {
+            // Every caller is released, whatever went wrong; already completed futures are unaffected
+            log.error("Coalesced purchase for event {} failed", eventId, e);
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        }
+    }
+    
+    private void process(Long eventId, List<PendingPurchase> batch) {
+        // Callers that already timed out are not reserved for
+        List<PendingPurchase> live = batch.stream()
+            .filter(p -> !p.result().isDone())
+            .collect(Collectors.toList());
+        if (live.isEmpty()) {
+            return;
+        }
+        int total = live.stream().mapToInt(p -> p.order().quantity()).sum();
+        
+        // One decrement covers the whole batch; when stock runs short each request competes on its own
+        List<PendingPurchase> reserved = new ArrayList<>(live.size());
+        try {
+            if (inventoryService.reserve(eventId, total)) {
+                reserved.addAll(live);
+            } else {
+                for (PendingPurchase p : live) {
+                    if (inventoryService.reserve(eventId, p.order().quantity())) {
+                        reserved.add(p);
+                    } else {
+                        p.result().completeExceptionally(new BadRequestException("Not enough tickets available"));
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            abandon(eventId, reserved, e);
+            throw e;
+        }
+        if (reserved.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<TicketService.TicketOrder> orders = reserved.stream()
+                .map(PendingPurchase::order)
+                .collect(Collectors.toList());
+            List<List<TicketDto>> issued = ticketService.issueReservedBatch(eventId, orders);
+            for (int i = 0; i < reserved.size(); i++) {
+                complete(eventId, reserved.get(i), issued.get(i));
+            }
+            log.debug("Issued {} coalesced purchases for event {} in one transaction", reserved.size(), eventId);
+        } catch (RuntimeException e) {
+            // Retry one by one so a bad request only fails itself
+            log.warn("Coalesced batch of {} purchases for event {} failed, retrying individually: {}",
+                reserved.size(), eventId, e.getMessage());
+            int next = 0;
+            try {
+                for (; next < reserved.size(); next++) {
+                    issueAlone(eventId, reserved.get(next));
+                }
+            } catch (Throwable t) {
+                // Purchases from the one that failed onwards were never issued; give their stock back
+                abandon(eventId, reserved.subList(next, reserved.size()), t);
+                throw t;
+            }
+        }
+    }
+    
+    private void issueAlone(Long eventId, PendingPurchase pending) {
+        List<TicketDto> issued;
+        try {
+            issued = ticketService.issueReservedBatch(eventId, List.of(pending.order())).get(0);
+        } catch (RuntimeException e) {
+            abandon(eventId, List.of(pending), e);
+            return;
+        }
+        complete(eventId, pending, issued);
+    }
+    
+    private void complete(Long eventId, PendingPurchase pending, List<TicketDto> issued) {
+        if (!pending.result().complete(issued)) {
+            // The caller timed out after its tickets were reserved; they are issued and stay in the wallet
+            log.warn("Issued {} tickets for event {} after the buyer stopped waiting", issued.size(), eventId);
+        }
+    }
+    
+    // Returns the stock reserved for purchases that will not be issued and fails them
+    private void abandon(Long eventId, List<PendingPurchase> purchases, Throwable cause) {
+        for (PendingPurchase p : purchases) {
+            try {
+                inventoryService.release(eventId, p.order().quantity());
+            } catch (RuntimeException e) {
+                log.error("Failed to release {} tickets for event {}", p.order().quantity(), eventId, e);
+            }
+            p.result().completeExceptionally(cause);
+        }
+    }
+    
+    private static class EventQueue {
+        private final Queue<PendingPurchase> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+    }
+    
+    private record PendingPurchase(TicketService.TicketOrder order, CompletableFuture<List<TicketDto>> result) {
+    }
+}
@@ -0,0 +1,146 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.utils.QRCodeGenerator;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class QrRenderService {
+    
+    @Autowired
+    private QRCodeGenerator qrCodeGenerator;
+    
+    @Value("${app.qr.render.threads:4}")
+    private int threads;
+    
+    @Value("${app.qr.render.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${app.qr.render.cache-max-bytes:67108864}")
+    private long cacheMaxBytes;
+    
+    @Value("${app.qr.render.cache-ttl-seconds:7200}")
+    private long cacheTtlSeconds;
+    
+    private ThreadPoolExecutor renderPool;
+    
+    private AsyncCache<RenderKey, Rendered> cache;
+    
+    @PostConstruct
+    public void init() {
+        // When the queue is full the caller renders itself, which throttles bulk jobs instead of failing them
+        renderPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.CallerRunsPolicy());
+        
+        // Weighed by rendered size; a payload changes every key epoch so entries never need invalidating
+        cache = Caffeine.newBuilder()
+            .maximumWeight(cacheMaxBytes)
+            .weigher((RenderKey key, Rendered rendered) -> rendered.content().length() + key.payload().length())
+            .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+            .buildAsync();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdown();
+    }
+    
+    // Concurrent requests for the same key share one render
+    public CompletableFuture<Rendered> renderAsync(RenderKey key) {
+        return cache.get(key, (k, executor) -> CompletableFuture.supplyAsync(() -> render(k), renderPool));
+    }
+    
+    public Rendered render(String ticketNumber, String payload, Format format) {
+        return join(renderAsync(new RenderKey(ticketNumber, payload, format)));
+    }
+    
+    public List<Rendered> renderAll(List<RenderKey> keys) {
+        List<CompletableFuture<Rendered>> futures = new ArrayList<>(keys.size());
+        for (RenderKey key : keys) {
+            futures.add(renderAsync(key));
+        }
+        
+        List<Rendered> rendered = new ArrayList<>(futures.size());
+        for (CompletableFuture<Rendered> future : futures) {
+            rendered.add(join(future));
+        }
+        return rendered;
+    }
+    
+    // Fire-and-forget: renders land in the cache and nothing is held here. Stops once the cache is full, since
+    // further renders would only evict codes warmed a moment earlier; the render queue bounds what is in flight
+    @Async
+    public void prewarm(Long eventId, List<RenderKey> keys) {
+        int queued = 0;
+        for (RenderKey key : keys) {
+            if (weightedSize() >= cacheMaxBytes) {
+                log.warn("QR render cache full after queuing {} of {} codes for event {}", queued, keys.size(), eventId);
+                return;
+            }
+            renderAsync(key);
+            queued++;
+        }
+        log.info("Queued {} QR codes for event {} to pre-render", queued, eventId);
+    }
+    
+    private long weightedSize() {
+        return cache.synchronous().policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0))
+            .orElse(0L);
+    }
+    
+    private Rendered render(RenderKey key) {
+        try {
+            if (key.format() == Format.PNG) {
+                return new Rendered(qrCodeGenerator.generateQRCode(key.payload()), null);
+            }
+            BitMatrix modules = qrCodeGenerator.encodeModules(key.payload());
+            String content = key.format() == Format.SVG
+                ? qrCodeGenerator.toSvg(modules)
+                : qrCodeGenerator.toPackedModules(modules);
+            return new Rendered(content, modules.getWidth());
+        } catch (WriterException | IOException e) {
+            throw new IllegalStateException("Unable to render QR code for ticket " + key.ticketNumber(), e);
+        }
+    }
+    
+    private Rendered join(CompletableFuture<Rendered> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    public enum Format {
+        PNG, SVG, MATRIX
+    }
+    
+    public record RenderKey(String ticketNumber, String payload, Format format) {
+    }
+    
+    public record Rendered(String content, Integer moduleCount) {
+    }
+}
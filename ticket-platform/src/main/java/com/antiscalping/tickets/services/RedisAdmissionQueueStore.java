@@ -0,0 +1,108 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(prefix = "app.queue", name = "store", havingValue = "redis", matchIfMissing = true)
+public class RedisAdmissionQueueStore implements AdmissionQueueStore {
+    
+    private static final String ACTIVE_EVENTS_KEY = "queue:events";
+    
+    private final DefaultRedisScript<Long> enqueueScript = loadScript("redis/queue-enqueue.lua", Long.class);
+    
+    @SuppressWarnings("rawtypes")
+    private final DefaultRedisScript<List> admitScript = loadScript("redis/queue-admit.lua", List.class);
+    
+    private final DefaultRedisScript<Long> expireScript = loadScript("redis/queue-expire.lua", Long.class);
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    @Override
+    public long enqueue(Long eventId, String member) {
+        Long rank = redisTemplate.execute(enqueueScript,
+            List.of(key(eventId, "seq"), key(eventId, "waiting"), ACTIVE_EVENTS_KEY), member, eventId.toString());
+        return rank != null ? rank : 0;
+    }
+    
+    @Override
+    public Long rank(Long eventId, String member) {
+        return redisTemplate.opsForZSet().rank(key(eventId, "waiting"), member);
+    }
+    
+    @Override
+    public long waitingCount(Long eventId) {
+        Long count = redisTemplate.opsForZSet().zCard(key(eventId, "waiting"));
+        return count != null ? count : 0;
+    }
+    
+    @Override
+    public List<String> admitNext(Long eventId, int count, long admittedUntil) {
+        List<?> popped = redisTemplate.execute(admitScript,
+            List.of(key(eventId, "waiting"), key(eventId, "admitted")), String.valueOf(count), String.valueOf(admittedUntil));
+        if (popped == null || popped.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        List<String> admitted = new ArrayList<>(popped.size());
+        for (Object member : popped) {
+            admitted.add(String.valueOf(member));
+        }
+        return admitted;
+    }
+    
+    @Override
+    public boolean isAdmitted(Long eventId, String member, long now) {
+        Double admittedUntil = redisTemplate.opsForZSet().score(key(eventId, "admitted"), member);
+        return admittedUntil != null && admittedUntil > now;
+    }
+    
+    @Override
+    public void revokeAdmission(Long eventId, String member) {
+        redisTemplate.opsForZSet().remove(key(eventId, "admitted"), member);
+    }
+    
+    @Override
+    public void expireAdmissions(Long eventId, long now) {
+        redisTemplate.execute(expireScript,
+            List.of(key(eventId, "admitted"), key(eventId, "waiting"), ACTIVE_EVENTS_KEY), String.valueOf(now), eventId.toString());
+    }
+    
+    // Only one node admits buyers for a given event and second
+    @Override
+    public boolean acquireTick(Long eventId, long tick) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue()
+            .setIfAbsent(key(eventId, "tick:" + tick), "1", Duration.ofSeconds(5)));
+    }
+    
+    @Override
+    public Set<Long> activeEvents() {
+        Set<Object> members = redisTemplate.opsForSet().members(ACTIVE_EVENTS_KEY);
+        if (members == null) {
+            return Collections.emptySet();
+        }
+        return members.stream().map(member -> Long.valueOf(member.toString())).collect(Collectors.toSet());
+    }
+    
+    private static String key(Long eventId, String suffix) {
+        return "queue:" + eventId + ":" + suffix;
+    }
+    
+    private static <T> DefaultRedisScript<T> loadScript(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(resultType);
+        return script;
+    }
+}
@@ -0,0 +1,99 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "app.gate", name = "store", havingValue = "redis", matchIfMissing = true)
+public class RedisEntryScanStore implements EntryScanStore {
+    
+    private final DefaultRedisScript<Long> claimScript = loadScript("redis/gate-claim.lua");
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    // Keys outlive a forgotten close by at most this long
+    @Value("${app.gate.entry-ttl-hours:24}")
+    private long entryTtlHours;
+    
+    @Override
+    public void open(Long eventId, String organizerId) {
+        redisTemplate.opsForValue().set(key(eventId, "open"), organizerId, ttl());
+    }
+    
+    @Override
+    public String organizerOf(Long eventId) {
+        Object organizerId = redisTemplate.opsForValue().get(key(eventId, "open"));
+        return organizerId != null ? organizerId.toString() : null;
+    }
+    
+    @Override
+    public void close(Long eventId) {
+        redisTemplate.delete(keys(eventId));
+    }
+    
+    @Override
+    public Claim claim(Long eventId, long ticketId, String presentedTag, String rosterTag) {
+        Long result = redisTemplate.execute(claimScript, keys(eventId),
+            String.valueOf(ticketId), String.valueOf(ttl().toMillis()),
+            presentedTag != null ? presentedTag : "", rosterTag != null ? rosterTag : "");
+        if (result == null) {
+            throw new IllegalStateException("No result from gate claim for event " + eventId);
+        }
+        return switch (result.intValue()) {
+            case 1 -> Claim.CLAIMED;
+            case -1 -> Claim.REVOKED;
+            case -2 -> Claim.CLOSED;
+            case -3 -> Claim.STALE;
+            default -> Claim.ALREADY_SCANNED;
+        };
+    }
+    
+    @Override
+    public void markScanned(Long eventId, long ticketId) {
+        add(key(eventId, "scanned"), ticketId);
+    }
+    
+    @Override
+    public void revoke(Long eventId, long ticketId) {
+        add(key(eventId, "revoked"), ticketId);
+    }
+    
+    @Override
+    public void reissue(Long eventId, long ticketId, String seedTag) {
+        String key = key(eventId, "seeds");
+        redisTemplate.opsForHash().put(key, String.valueOf(ticketId), seedTag);
+        redisTemplate.expire(key, ttl());
+    }
+    
+    private void add(String key, long ticketId) {
+        redisTemplate.opsForSet().add(key, String.valueOf(ticketId));
+        redisTemplate.expire(key, ttl());
+    }
+    
+    private Duration ttl() {
+        return Duration.ofHours(entryTtlHours);
+    }
+    
+    private static List<String> keys(Long eventId) {
+        return List.of(key(eventId, "open"), key(eventId, "scanned"), key(eventId, "revoked"), key(eventId, "seeds"));
+    }
+    
+    private static String key(Long eventId, String suffix) {
+        return "gate:" + eventId + ":" + suffix;
+    }
+    
+    private static DefaultRedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
@@ -0,0 +1,74 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency", name = "store", havingValue = "redis", matchIfMissing = true)
+public class RedisIdempotencyStore implements IdempotencyStore {
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    private final DefaultRedisScript<Long> completeScript = loadScript("redis/idempotency-complete.lua");
+    
+    private final DefaultRedisScript<Long> unlockScript = loadScript("redis/idempotency-unlock.lua");
+    
+    @Override
+    public StoredResponse get(String key) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(responseKey(key));
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return new StoredResponse(
+            (String) fields.get("fingerprint"),
+            Integer.parseInt((String) fields.get("status")),
+            (String) fields.get("contentType"),
+            (String) fields.get("body"));
+    }
+    
+    @Override
+    public String tryLock(String key, long lockTtlMs) {
+        String token = UUID.randomUUID().toString();
+        boolean acquired = Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey(key), token, Duration.ofMillis(lockTtlMs)));
+        return acquired ? token : null;
+    }
+    
+    @Override
+    public void complete(String key, StoredResponse response, long ttlMs) {
+        redisTemplate.execute(completeScript, List.of(responseKey(key)),
+            response.fingerprint(),
+            String.valueOf(response.status()),
+            response.contentType() != null ? response.contentType() : "",
+            response.body(),
+            String.valueOf(ttlMs));
+    }
+    
+    @Override
+    public void unlock(String key, String token) {
+        redisTemplate.execute(unlockScript, List.of(lockKey(key)), token);
+    }
+    
+    private String responseKey(String key) {
+        return "idempotency:" + key;
+    }
+    
+    private String lockKey(String key) {
+        return "idempotency:" + key + ":lock";
+    }
+    
+    private static DefaultRedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
@@ -0,0 +1,60 @@
+package com.antiscalping.tickets.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "app.inventory", name = "store", havingValue = "redis", matchIfMissing = true)
+public class RedisInventoryStore implements InventoryStore {
+    
+    private static final String KEY_PREFIX = "inventory:event:";
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    private final DefaultRedisScript<Long> reserveScript = loadScript("redis/inventory-reserve.lua");
+    
+    private final DefaultRedisScript<Long> releaseScript = loadScript("redis/inventory-release.lua");
+    
+    @Override
+    public long reserve(Long eventId, int quantity) {
+        return execute(reserveScript, eventId, quantity);
+    }
+    
+    @Override
+    public long release(Long eventId, int quantity) {
+        return execute(releaseScript, eventId, quantity);
+    }
+    
+    @Override
+    public boolean initialize(Long eventId, long available) {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key(eventId), String.valueOf(available)));
+    }
+    
+    @Override
+    public long getAvailable(Long eventId) {
+        Object value = redisTemplate.opsForValue().get(key(eventId));
+        return value != null ? Long.parseLong(value.toString()) : NOT_LOADED;
+    }
+    
+    private long execute(DefaultRedisScript<Long> script, Long eventId, int quantity) {
+        Long result = redisTemplate.execute(script, List.of(key(eventId)), String.valueOf(quantity));
+        return result != null ? result : NOT_LOADED;
+    }
+    
+    private static String key(Long eventId) {
+        return KEY_PREFIX + eventId;
+    }
+    
+    private static DefaultRedisScript<Long> loadScript(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(Long.class);
+        return script;
+    }
+}
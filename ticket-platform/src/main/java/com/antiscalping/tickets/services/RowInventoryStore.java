@@ -0,0 +1,130 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.utils.JitteredRetry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnProperty(prefix = "app.inventory", name = "store", havingValue = "row")
+@Slf4j
+public class RowInventoryStore implements InventoryStore {
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.inventory.retry.max-attempts:5}")
+    private int maxAttempts;
+    
+    @Value("${app.inventory.retry.base-delay-ms:5}")
+    private long baseDelayMs;
+    
+    @Value("${app.inventory.retry.max-delay-ms:200}")
+    private long maxDelayMs;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private JitteredRetry retry;
+    
+    @PostConstruct
+    public void init() {
+        // Each attempt is its own short transaction so a retry never runs inside an aborted one
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        retry = new JitteredRetry(maxAttempts, baseDelayMs, maxDelayMs);
+    }
+    
+    @Override
+    public long reserve(Long eventId, int quantity) {
+        int updated = update(eventId, "reserve", () -> eventRepository.decrementAvailableTickets(eventId, quantity));
+        if (updated > 0) {
+            return quantity;
+        }
+        if (!eventRepository.existsById(eventId)) {
+            return NOT_LOADED;
+        }
+        outcome(eventId, "reserve", "sold_out").increment();
+        return SOLD_OUT;
+    }
+    
+    @Override
+    public long release(Long eventId, int quantity) {
+        int updated = update(eventId, "release", () -> eventRepository.incrementAvailableTickets(eventId, quantity));
+        if (updated > 0) {
+            return quantity;
+        }
+        if (!eventRepository.existsById(eventId)) {
+            return NOT_LOADED;
+        }
+        log.warn("Releasing {} tickets for event {} would exceed its capacity; ignored", quantity, eventId);
+        return 0;
+    }
+    
+    // The events row is created with its availability, so there is never a counter to load
+    @Override
+    public boolean initialize(Long eventId, long available) {
+        return false;
+    }
+    
+    @Override
+    public long getAvailable(Long eventId) {
+        Integer available = eventRepository.findAvailableTickets(eventId);
+        return available != null ? available : NOT_LOADED;
+    }
+    
+    @Override
+    public boolean persistsToEventRow() {
+        return true;
+    }
+    
+    private int update(Long eventId, String operation, Supplier<Integer> statement) {
+        try {
+            Integer updated = retry.execute(() -> transactionTemplate.execute(status -> statement.get()), attempt -> {
+                counter("inventory.row.contention", eventId, operation).increment();
+                counter("inventory.row.retries", eventId, operation).increment();
+            });
+            if (updated != null && updated > 0) {
+                outcome(eventId, operation, "applied").increment();
+                return updated;
+            }
+            return 0;
+        } catch (TransientDataAccessException e) {
+            counter("inventory.row.contention", eventId, operation).increment();
+            outcome(eventId, operation, "gave_up").increment();
+            log.warn("Inventory {} for event {} failed after {} attempts: {}", operation, eventId, maxAttempts, e.getMessage());
+            throw e;
+        }
+    }
+    
+    private Counter counter(String name, Long eventId, String operation) {
+        return Counter.builder(name)
+            .tag("event", eventId.toString())
+            .tag("operation", operation)
+            .register(meterRegistry);
+    }
+    
+    private Counter outcome(Long eventId, String operation, String outcome) {
+        return Counter.builder("inventory.row.updates")
+            .tag("event", eventId.toString())
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,220 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.SeatDto;
+import com.antiscalping.tickets.dto.SeatMapDto;
+import com.antiscalping.tickets.dto.SeatRowDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.EventSeatRow;
+import com.antiscalping.tickets.entities.Ticket;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.EventSeatRowRepository;
+import com.antiscalping.tickets.repositories.TicketRepository;
+import com.antiscalping.tickets.utils.SeatMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class SeatMapService {
+    
+    private static final Set<Ticket.TicketStatus> UNASSIGNED_STATUSES =
+        EnumSet.of(Ticket.TicketStatus.UNSOLD, Ticket.TicketStatus.CANCELLED, Ticket.TicketStatus.REFUNDED);
+    
+    @Autowired
+    private EventSeatRowRepository eventSeatRowRepository;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    // Events without assigned seating are cached as empty so general-admission purchases skip the lookup
+    private final Map<Long, Optional<SeatMap>> seatMaps = new ConcurrentHashMap<>();
+    
+    @Transactional
+    public SeatMapDto defineSeatMap(Long eventId, Long userId, SeatMapDto seatMapDto) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can define its seat map");
+        }
+        
+        if (eventSeatRowRepository.existsByEventId(eventId)) {
+            throw new BadRequestException("Seat map is already defined for this event");
+        }
+        
+        if (ticketRepository.countByEventIdAndStatusNotIn(eventId, UNASSIGNED_STATUSES) > 0) {
+            throw new BadRequestException("Seat map must be defined before tickets are sold");
+        }
+        
+        List<SeatRowDto> rows = seatMapDto.getRows();
+        int seats = rows.stream().mapToInt(SeatRowDto::getSeatCount).sum();
+        if (seats != event.getTotalCapacity()) {
+            throw new BadRequestException("Seat map has " + seats + " seats but the event capacity is " + event.getTotalCapacity());
+        }
+        
+        Set<String> labels = new HashSet<>();
+        List<EventSeatRow> seatRows = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            SeatRowDto row = rows.get(i);
+            if (!labels.add(row.getSection() + "/" + row.getRowLabel())) {
+                throw new BadRequestException("Duplicate row " + row.getRowLabel() + " in section " + row.getSection());
+            }
+            seatRows.add(EventSeatRow.builder()
+                .eventId(eventId)
+                .section(row.getSection())
+                .rowLabel(row.getRowLabel())
+                .seatCount(row.getSeatCount())
+                .rank(i)
+                .build());
+        }
+        eventSeatRowRepository.saveAll(seatRows);
+        
+        SeatMap seatMap = buildSeatMap(eventId, seatRows);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatMaps.put(eventId, Optional.of(seatMap));
+            }
+        });
+        log.info("Seat map defined for event {}: {} rows, {} seats", eventId, seatRows.size(), seats);
+        
+        return mapToDto(eventId, seatRows, seatMap);
+    }
+    
+    public SeatMapDto getSeatMap(Long eventId) {
+        SeatMap seatMap = seatMap(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event has no seat map"));
+        return mapToDto(eventId, eventSeatRowRepository.findByEventIdOrderByRankAsc(eventId), seatMap);
+    }
+    
+    public boolean hasSeatMap(Long eventId) {
+        return seatMap(eventId).isPresent();
+    }
+    
+    public List<SeatDto> findBestAvailable(Long eventId, int quantity) {
+        SeatMap seatMap = seatMap(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event has no seat map"));
+        SeatMap.Block block = seatMap.findBest(quantity);
+        if (block == null) {
+            throw new BadRequestException("No " + quantity + " adjacent seats available");
+        }
+        return toSeats(block);
+    }
+    
+    // Seats are returned to the map if the surrounding transaction rolls back
+    public List<SeatDto> allocate(Long eventId, int quantity) {
+        SeatMap seatMap = seatMap(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event has no seat map"));
+        SeatMap.Block block = seatMap.allocateBest(quantity);
+        if (block == null) {
+            throw new BadRequestException("No " + quantity + " adjacent seats available");
+        }
+        
+        List<SeatDto> seats = toSeats(block);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        seats.forEach(seat -> seatMap.release(seat.getSection(), seat.getRowLabel(), seat.getSeatNumber()));
+                    }
+                }
+            });
+        }
+        return seats;
+    }
+    
+    public void releaseAfterCommit(Long eventId, String section, String rowLabel, Integer seatNumber) {
+        Optional<SeatMap> seatMap = seatMap(eventId);
+        if (seatMap.isEmpty() || seatNumber == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            seatMap.get().release(section, rowLabel, seatNumber);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                seatMap.get().release(section, rowLabel, seatNumber);
+            }
+        });
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSeatMaps() {
+        Map<Long, List<EventSeatRow>> rowsByEvent = eventSeatRowRepository.findAllByOrderByEventIdAscRankAsc().stream()
+            .collect(Collectors.groupingBy(EventSeatRow::getEventId));
+        
+        rowsByEvent.forEach((eventId, rows) -> seatMaps.put(eventId, Optional.of(buildSeatMap(eventId, rows))));
+        log.info("Seat maps rebuilt for {} events", rowsByEvent.size());
+    }
+    
+    private Optional<SeatMap> seatMap(Long eventId) {
+        return seatMaps.computeIfAbsent(eventId, id -> {
+            List<EventSeatRow> rows = eventSeatRowRepository.findByEventIdOrderByRankAsc(id);
+            return rows.isEmpty() ? Optional.empty() : Optional.of(buildSeatMap(id, rows));
+        });
+    }
+    
+    private SeatMap buildSeatMap(Long eventId, List<EventSeatRow> rows) {
+        SeatMap seatMap = new SeatMap(rows.stream()
+            .map(row -> new SeatMap.Row(row.getSection(), row.getRowLabel(), row.getSeatCount()))
+            .collect(Collectors.toList()));
+        
+        for (Object[] seat : ticketRepository.findAssignedSeats(eventId, UNASSIGNED_STATUSES)) {
+            if (!seatMap.markTaken((String) seat[0], (String) seat[1], (Integer) seat[2])) {
+                log.warn("Ticket seat {}/{}/{} for event {} is not on the seat map", seat[0], seat[1], seat[2], eventId);
+            }
+        }
+        return seatMap;
+    }
+    
+    private List<SeatDto> toSeats(SeatMap.Block block) {
+        List<SeatDto> seats = new ArrayList<>(block.quantity());
+        for (int i = 0; i < block.quantity(); i++) {
+            seats.add(SeatDto.builder()
+                .section(block.section())
+                .rowLabel(block.rowLabel())
+                .seatNumber(block.firstSeat() + i)
+                .build());
+        }
+        return seats;
+    }
+    
+    private SeatMapDto mapToDto(Long eventId, List<EventSeatRow> rows, SeatMap seatMap) {
+        return SeatMapDto.builder()
+            .eventId(eventId)
+            .rows(rows.stream()
+                .map(row -> SeatRowDto.builder()
+                    .section(row.getSection())
+                    .rowLabel(row.getRowLabel())
+                    .seatCount(row.getSeatCount())
+                    .available(seatMap.available(row.getSection(), row.getRowLabel()))
+                    .build())
+                .collect(Collectors.toList()))
+            .available(seatMap.available())
+            .build();
+    }
+}
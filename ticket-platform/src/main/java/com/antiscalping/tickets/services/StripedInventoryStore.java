@@ -0,0 +1,129 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.entities.EventInventoryBucket;
+import com.antiscalping.tickets.repositories.EventInventoryBucketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(prefix = "app.inventory", name = "store", havingValue = "striped")
+@Slf4j
+public class StripedInventoryStore implements InventoryStore {
+    
+    @Autowired
+    private EventInventoryBucketRepository bucketRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${app.inventory.stripes:16}")
+    private int stripes;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        // Bucket updates commit on their own so a row lock is never held across a purchase
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    @Override
+    public long reserve(Long eventId, int quantity) {
+        int home = homeBucket();
+        Boolean reserved = transactionTemplate.execute(status -> {
+            for (int i = 0; i < stripes; i++) {
+                if (bucketRepository.decrement(eventId, (home + i) % stripes, quantity) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        });
+        
+        if (Boolean.TRUE.equals(reserved)) {
+            return quantity;
+        }
+        return reserveAcrossBuckets(eventId, quantity);
+    }
+    
+    @Override
+    public long release(Long eventId, int quantity) {
+        Integer updated = transactionTemplate.execute(status -> bucketRepository.increment(eventId, homeBucket(), quantity));
+        return updated != null && updated > 0 ? quantity : NOT_LOADED;
+    }
+    
+    @Override
+    public boolean initialize(Long eventId, long available) {
+        try {
+            Boolean created = transactionTemplate.execute(status -> {
+                if (bucketRepository.existsByEventId(eventId)) {
+                    return false;
+                }
+                
+                List<EventInventoryBucket> buckets = new ArrayList<>();
+                for (int bucket = 0; bucket < stripes; bucket++) {
+                    long share = available / stripes + (bucket < available % stripes ? 1 : 0);
+                    buckets.add(EventInventoryBucket.builder()
+                        .eventId(eventId)
+                        .bucket(bucket)
+                        .available((int) share)
+                        .build());
+                }
+                bucketRepository.saveAll(buckets);
+                return true;
+            });
+            return Boolean.TRUE.equals(created);
+        } catch (DuplicateKeyException e) {
+            // Only the (event_id, bucket) key means another caller won; anything else is a real failure
+            log.debug("Inventory buckets for event {} were created concurrently", eventId);
+            return false;
+        }
+    }
+    
+    @Override
+    public long getAvailable(Long eventId) {
+        Long total = bucketRepository.sumAvailable(eventId);
+        return total != null ? total : NOT_LOADED;
+    }
+    
+    // Slow path near sell-out: the request only fits when several buckets are combined
+    private long reserveAcrossBuckets(Long eventId, int quantity) {
+        Long result = transactionTemplate.execute(status -> {
+            List<EventInventoryBucket> buckets = bucketRepository.findByEventIdForUpdate(eventId);
+            if (buckets.isEmpty()) {
+                return NOT_LOADED;
+            }
+            
+            long total = buckets.stream().mapToLong(EventInventoryBucket::getAvailable).sum();
+            if (total < quantity) {
+                return SOLD_OUT;
+            }
+            
+            int remaining = quantity;
+            for (EventInventoryBucket bucket : buckets) {
+                int taken = Math.min(bucket.getAvailable(), remaining);
+                bucket.setAvailable(bucket.getAvailable() - taken);
+                remaining -= taken;
+                if (remaining == 0) {
+                    break;
+                }
+            }
+            return total - quantity;
+        });
+        return result != null ? result : NOT_LOADED;
+    }
+    
+    private int homeBucket() {
+        return (int) Math.floorMod(Thread.currentThread().getId(), (long) stripes);
+    }
+}
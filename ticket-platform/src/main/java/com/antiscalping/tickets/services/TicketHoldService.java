@@ -0,0 +1,323 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.TicketDto;
+import com.antiscalping.tickets.dto.TicketHoldDto;
+import com.antiscalping.tickets.dto.TicketHoldRequestDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.Payment;
+import com.antiscalping.tickets.entities.TicketHold;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.TicketHoldRepository;
+import com.antiscalping.tickets.repositories.UserRepository;
+import com.antiscalping.tickets.utils.HierarchicalTimingWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class TicketHoldService {
+    
+    private static final String EXPIRE_DUE_HOLDS_SQL =
+        "UPDATE ticket_holds SET status = 'EXPIRED', updated_at = :now " +
+        "WHERE status = 'ACTIVE' AND expires_at <= :now";
+    
+    // Holds left in CONFIRMING by a crash or a payment call that never returned
+    private static final String EXPIRE_STUCK_CONFIRMING_SQL =
+        "UPDATE ticket_holds SET status = 'EXPIRED', updated_at = :now " +
+        "WHERE status = 'CONFIRMING' AND confirming_since <= :cutoff";
+    
+    private static final int WHEEL_SIZE = 512;
+    
+    @Autowired
+    private TicketHoldRepository ticketHoldRepository;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    
+    @Value("${app.holds.ttl-seconds:600}")
+    private long holdTtlSeconds;
+    
+    @Value("${app.holds.tick-ms:1000}")
+    private long tickMs;
+    
+    @Value("${app.holds.confirming-timeout-seconds:900}")
+    private long confirmingTimeoutSeconds;
+    
+    private HierarchicalTimingWheel<Long> expiryWheel;
+    
+    // Tickets whose hold has ended but which could not yet be put back into the inventory store
+    private final Map<Long, Integer> pendingReleases = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        expiryWheel = new HierarchicalTimingWheel<>(tickMs, WHEEL_SIZE, System.currentTimeMillis());
+    }
+    
+    public TicketHoldDto createHold(Long userId, TicketHoldRequestDto request) {
+        Long eventId = request.getEventId();
+        int quantity = request.getQuantity();
+        
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        if (event.getStatus() != Event.EventStatus.ACTIVE) {
+            throw new BadRequestException("Event is not on sale");
+        }
+        
+        if (!inventoryService.reserve(eventId, quantity)) {
+            throw new BadRequestException("Not enough tickets available");
+        }
+        
+        TicketHold hold;
+        try {
+            hold = transactionTemplate.execute(status -> ticketHoldRepository.save(TicketHold.builder()
+                .event(eventRepository.getReferenceById(eventId))
+                .user(userRepository.getReferenceById(userId))
+                .quantity(quantity)
+                .status(TicketHold.HoldStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plusSeconds(holdTtlSeconds))
+                .build()));
+        } catch (RuntimeException e) {
+            inventoryService.release(eventId, quantity);
+            throw e;
+        }
+        
+        expiryWheel.schedule(hold.getId(), toEpochMillis(hold.getExpiresAt()));
+        log.info("Hold {} created for {} tickets of event {}", hold.getId(), quantity, eventId);
+        return mapToDto(hold, eventId, event.getTicketPrice());
+    }
+    
+    public TicketHoldDto getHold(Long holdId, Long userId) {
+        TicketHold hold = findOwnedHold(holdId, userId);
+        Event event = eventRepository.findById(hold.getEvent().getId())
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        return mapToDto(hold, event.getId(), event.getTicketPrice());
+    }
+    
+    // Each step is its own short transaction; CONFIRMING keeps the expiry sweeper away until confirming-timeout-seconds
+    public List<TicketDto> confirmHold(Long holdId, Long userId, Payment.PaymentGateway gateway) {
+        TicketHold hold = findOwnedHold(holdId, userId);
+        Long eventId = hold.getEvent().getId();
+        int quantity = hold.getQuantity();
+        
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        
+        Integer claimed = transactionTemplate.execute(status -> ticketHoldRepository.startConfirming(holdId, LocalDateTime.now()));
+        if (claimed == null || claimed == 0) {
+            throw new BadRequestException("Hold has expired or is already being confirmed");
+        }
+        
+        Payment payment;
+        try {
+            payment = transactionTemplate.execute(status -> {
+                Payment processed = paymentService.processPayment(userId, event.getTicketPrice() * quantity, gateway);
+                if (ticketHoldRepository.attachPayment(holdId, processed.getId()) == 0) {
+                    throw new BadRequestException("Hold expired while payment was being processed");
+                }
+                return processed;
+            });
+        } catch (RuntimeException e) {
+            reactivate(holdId);
+            throw e;
+        }
+        
+        if (payment.getStatus() != Payment.PaymentStatus.COMPLETED) {
+            reactivate(holdId);
+            throw new BadRequestException("Payment failed: " + payment.getFailureReason());
+        }
+        
+        try {
+            return transactionTemplate.execute(status -> {
+                List<TicketDto> tickets = ticketService.issueReservedTickets(userId, eventId, quantity);
+                if (ticketHoldRepository.markConfirmed(holdId, payment.getId()) == 0) {
+                    throw new BadRequestException("Hold expired while it was being confirmed");
+                }
+                return tickets;
+            });
+        } catch (RuntimeException e) {
+            // Whoever moves the hold out of CONFIRMING compensates; the stuck-hold sweeper may already have
+            if (releaseFrom(holdId, eventId, quantity, TicketHold.HoldStatus.CONFIRMING)) {
+                log.error("Issuing tickets for hold {} failed, refunding payment {}", holdId, payment.getId(), e);
+                paymentService.refundPayment(payment.getId(), userId);
+            }
+            throw e;
+        }
+    }
+    
+    public void releaseHold(Long holdId, Long userId) {
+        TicketHold hold = findOwnedHold(holdId, userId);
+        if (!releaseFrom(holdId, hold.getEvent().getId(), hold.getQuantity(), TicketHold.HoldStatus.ACTIVE)) {
+            throw new BadRequestException("Hold is no longer active");
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        List<TicketHold> holds = ticketHoldRepository.findByStatus(TicketHold.HoldStatus.ACTIVE);
+        for (TicketHold hold : holds) {
+            expiryWheel.schedule(hold.getId(), toEpochMillis(hold.getExpiresAt()));
+        }
+        log.info("Scheduled expiry for {} active holds", holds.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.holds.tick-ms:1000}")
+    public void expireDueHolds() {
+        retryPendingReleases();
+        List<Long> due = expiryWheel.advance(System.currentTimeMillis());
+        if (!due.isEmpty()) {
+            expire(EXPIRE_DUE_HOLDS_SQL + " AND id IN (:ids)", new MapSqlParameterSource("ids", due));
+        }
+    }
+    
+    // Catches holds scheduled on another instance or missed across a restart
+    @Scheduled(fixedDelayString = "${app.holds.sweep-interval-ms:60000}")
+    public void sweepExpiredHolds() {
+        expire(EXPIRE_DUE_HOLDS_SQL, new MapSqlParameterSource());
+        expireStuckConfirming();
+    }
+    
+    // The timeout must exceed the slowest payment call; a confirm that finishes later finds its hold
+    // gone and rolls back, so the hold is compensated exactly once
+    private void expireStuckConfirming() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+            .addValue("cutoff", Timestamp.valueOf(LocalDateTime.now().minusSeconds(confirmingTimeoutSeconds)));
+        List<StuckHold> stuck = namedParameterJdbcTemplate.query(EXPIRE_STUCK_CONFIRMING_SQL +
+            " RETURNING id, event_id, user_id, quantity, payment_id", params, (rs, rowNum) -> new StuckHold(
+                rs.getLong("id"),
+                rs.getLong("event_id"),
+                rs.getLong("user_id"),
+                rs.getInt("quantity"),
+                rs.getObject("payment_id", Long.class)));
+        
+        for (StuckHold hold : stuck) {
+            // Tickets were never issued for a hold still in CONFIRMING, so a completed payment is refunded
+            if (hold.paymentId() != null) {
+                try {
+                    if (paymentService.getPayment(hold.paymentId()).getStatus() == Payment.PaymentStatus.COMPLETED) {
+                        paymentService.refundPayment(hold.paymentId(), hold.userId());
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Refunding payment {} of stuck hold {} failed", hold.paymentId(), hold.id(), e);
+                }
+            }
+            returnToInventory(hold.eventId(), hold.quantity());
+            log.warn("Hold {} was stuck confirming for over {} s; expired and returned {} tickets to event {}",
+                hold.id(), confirmingTimeoutSeconds, hold.quantity(), hold.eventId());
+        }
+    }
+    
+    private void expire(String sql, MapSqlParameterSource params) {
+        params.addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        Map<Long, Integer> released = new HashMap<>();
+        
+        // One statement flips every due hold and reports exactly which ones this call expired
+        namedParameterJdbcTemplate.query(sql + " RETURNING event_id, quantity", params, rs -> {
+            released.merge(rs.getLong("event_id"), rs.getInt("quantity"), Integer::sum);
+        });
+        
+        released.forEach((eventId, quantity) -> {
+            returnToInventory(eventId, quantity);
+            log.info("Expired holds returned {} tickets to event {}", quantity, eventId);
+        });
+    }
+    
+    // The hold's status change has already committed, so a failed release is queued and retried on the
+    // next tick rather than dropped
+    private void returnToInventory(Long eventId, int quantity) {
+        try {
+            inventoryService.release(eventId, quantity);
+        } catch (RuntimeException e) {
+            pendingReleases.merge(eventId, quantity, Integer::sum);
+            log.warn("Returning {} tickets to event {} failed; will retry: {}", quantity, eventId, e.getMessage());
+        }
+    }
+    
+    private void retryPendingReleases() {
+        for (Long eventId : List.copyOf(pendingReleases.keySet())) {
+            Integer quantity = pendingReleases.remove(eventId);
+            if (quantity != null) {
+                returnToInventory(eventId, quantity);
+            }
+        }
+    }
+    
+    private void reactivate(Long holdId) {
+        transactionTemplate.execute(status -> ticketHoldRepository.transition(
+            holdId, TicketHold.HoldStatus.CONFIRMING, TicketHold.HoldStatus.ACTIVE));
+    }
+    
+    private boolean releaseFrom(Long holdId, Long eventId, int quantity, TicketHold.HoldStatus from) {
+        Integer updated = transactionTemplate.execute(status -> ticketHoldRepository.transition(
+            holdId, from, TicketHold.HoldStatus.RELEASED));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        returnToInventory(eventId, quantity);
+        return true;
+    }
+    
+    private TicketHold findOwnedHold(Long holdId, Long userId) {
+        TicketHold hold = ticketHoldRepository.findById(holdId)
+            .orElseThrow(() -> new ResourceNotFoundException("Hold not found"));
+        if (!hold.getUser().getId().equals(userId)) {
+            throw new BadRequestException("You are not the owner of this hold");
+        }
+        return hold;
+    }
+    
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private TicketHoldDto mapToDto(TicketHold hold, Long eventId, Double ticketPrice) {
+        return TicketHoldDto.builder()
+            .id(hold.getId())
+            .eventId(eventId)
+            .quantity(hold.getQuantity())
+            .amount(ticketPrice * hold.getQuantity())
+            .status(hold.getStatus().toString())
+            .expiresAt(hold.getExpiresAt())
+            .createdAt(hold.getCreatedAt())
+            .build();
+    }
+    
+    private record StuckHold(long id, long eventId, long userId, int quantity, Long paymentId) {
+    }
+}
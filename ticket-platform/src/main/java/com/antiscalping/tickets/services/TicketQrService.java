@@ -0,0 +1,212 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.GateKeysDto;
+import com.antiscalping.tickets.dto.QrVerificationDto;
+import com.antiscalping.tickets.dto.TicketQrDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.Ticket;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
+import com.antiscalping.tickets.exceptions.UnauthorizedException;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.TicketRepository;
+import com.antiscalping.tickets.verifier.QrKeyDerivation;
+import com.antiscalping.tickets.verifier.QrPayload;
+import com.antiscalping.tickets.verifier.QrPayloadSigner;
+import com.antiscalping.tickets.verifier.QrPayloadVerifier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class TicketQrService {
+    
+    private static final Set<Ticket.TicketStatus> ENTRY_STATUSES =
+        EnumSet.of(Ticket.TicketStatus.AVAILABLE, Ticket.TicketStatus.TRANSFERRED, Ticket.TicketStatus.CLAIMED);
+    
+    @Autowired
+    private TicketRepository ticketRepository;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private QrRenderService qrRenderService;
+    
+    @Value("${app.qr.signing-secret:${app.jwt.secret:ticket-platform-secret-key-change-in-production}}")
+    private String signingSecret;
+    
+    @Value("${app.qr.key-rotation-seconds:3600}")
+    private long rotationSeconds;
+    
+    @Value("${app.qr.accepted-past-epochs:1}")
+    private int acceptedPastEpochs;
+    
+    @Value("${app.qr.render.prewarm-lead-hours:6}")
+    private long prewarmLeadHours;
+    
+    private QrKeyDerivation keyDerivation;
+    
+    private QrPayloadSigner signer;
+    
+    private QrPayloadVerifier verifier;
+    
+    @PostConstruct
+    public void init() {
+        keyDerivation = new QrKeyDerivation(signingSecret);
+        signer = new QrPayloadSigner(keyDerivation, rotationSeconds);
+        verifier = new QrPayloadVerifier(keyDerivation, rotationSeconds, acceptedPastEpochs);
+    }
+    
+    public TicketQrDto getTicketQr(Long ticketId, Long userId, String format) {
+        QrRenderService.Format renderFormat = parseFormat(format);
+        Ticket ticket = ticketRepository.findIssuedById(ticketId)
+            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+        
+        if (ticket.getUser() == null || !ticket.getUser().getId().equals(userId)) {
+            throw new BadRequestException("You are not the owner of this ticket");
+        }
+        if (!ENTRY_STATUSES.contains(ticket.getStatus())) {
+            throw new BadRequestException("Ticket is not valid for entry");
+        }
+        
+        return renderAll(List.of(ticket), renderFormat).get(0);
+    }
+    
+    // Every ticket in the user's wallet, rendered in parallel and mostly served from the render cache
+    public List<TicketQrDto> getWalletQrs(Long userId, String format) {
+        QrRenderService.Format renderFormat = parseFormat(format);
+        List<Ticket> tickets = ticketRepository.findByUserId(userId).stream()
+            .filter(ticket -> ENTRY_STATUSES.contains(ticket.getStatus()))
+            .toList();
+        return renderAll(tickets, renderFormat);
+    }
+    
+    public int prewarm(Long eventId, Long userId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can pre-render QR codes");
+        }
+        return prewarmEvent(eventId);
+    }
+    
+    // Renders the current epoch's codes for events starting soon, so doors-open wallet loads hit the cache
+    @Scheduled(fixedDelayString = "${app.qr.render.prewarm-interval-ms:900000}")
+    public void prewarmUpcomingEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusHours(prewarmLeadHours);
+        for (Event event : eventRepository.findUpcomingEvents(now)) {
+            if (event.getEventDate().isAfter(horizon)) {
+                break;
+            }
+            prewarmEvent(event.getId());
+        }
+    }
+    
+    private int prewarmEvent(Long eventId) {
+        long now = Instant.now().getEpochSecond();
+        List<QrRenderService.RenderKey> keys = new ArrayList<>();
+        for (Object[] row : ticketRepository.findEntryRoster(eventId, ENTRY_STATUSES)) {
+            Long ticketId = (Long) row[0];
+            String ticketNumber = (String) row[1];
+            String qrSeed = (String) row[2];
+            String payload = signer.sign(eventId, ticketId, qrSeed, now).encode();
+            keys.add(new QrRenderService.RenderKey(ticketNumber, payload, QrRenderService.Format.PNG));
+        }
+        qrRenderService.prewarm(eventId, keys);
+        return keys.size();
+    }
+    
+    private List<TicketQrDto> renderAll(List<Ticket> tickets, QrRenderService.Format format) {
+        long now = Instant.now().getEpochSecond();
+        LocalDateTime refreshAfter = toLocalDateTime((signer.epochAt(now) + 1) * rotationSeconds);
+        
+        List<QrRenderService.RenderKey> keys = new ArrayList<>(tickets.size());
+        for (Ticket ticket : tickets) {
+            keys.add(new QrRenderService.RenderKey(ticket.getTicketNumber(), signPayload(ticket, now).encode(), format));
+        }
+        List<QrRenderService.Rendered> rendered = qrRenderService.renderAll(keys);
+        
+        List<TicketQrDto> qrs = new ArrayList<>(tickets.size());
+        for (int i = 0; i < tickets.size(); i++) {
+            qrs.add(TicketQrDto.builder()
+                .ticketId(tickets.get(i).getId())
+                .ticketNumber(tickets.get(i).getTicketNumber())
+                .payload(keys.get(i).payload())
+                .format(format.toString())
+                .qrCode(rendered.get(i).content())
+                .moduleCount(rendered.get(i).moduleCount())
+                .refreshAfter(refreshAfter)
+                .build());
+        }
+        return qrs;
+    }
+    
+    public QrPayload signPayload(Ticket ticket, long nowEpochSeconds) {
+        return signer.sign(ticket.getEvent().getId(), ticket.getId(), ticket.getQrSeed(), nowEpochSeconds);
+    }
+    
+    // Public key gate devices need to verify this event's QR codes offline; it cannot sign codes
+    public GateKeysDto getGateKeys(Long eventId, Long userId) {
+        Event event = eventRepository.findById(eventId)
+            .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
+        
+        if (!event.getOrganizerId().equals(userId.toString())) {
+            throw new UnauthorizedException("Only the event organizer can download gate keys");
+        }
+        
+        return GateKeysDto.builder()
+            .eventId(eventId)
+            .algorithm("Ed25519")
+            .publicKey(keyDerivation.encodedPublicKeyFor(eventId))
+            .rotationSeconds(rotationSeconds)
+            .acceptedPastEpochs(acceptedPastEpochs)
+            .build();
+    }
+    
+    public QrPayloadVerifier.Result verify(String payload, Long eventId) {
+        return verifier.verify(payload, eventId, Instant.now().getEpochSecond());
+    }
+    
+    public QrVerificationDto verifyPayload(String payload, Long eventId) {
+        QrPayloadVerifier.Result result = verify(payload, eventId);
+        return QrVerificationDto.builder()
+            .payload(payload)
+            .eventId(result.payload() != null ? result.payload().eventId() : eventId)
+            .ticketId(result.payload() != null ? result.payload().ticketId() : null)
+            .valid(result.valid())
+            .status(result.status().toString())
+            .build();
+    }
+    
+    private QrRenderService.Format parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return QrRenderService.Format.PNG;
+        }
+        try {
+            return QrRenderService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported QR format: " + format);
+        }
+    }
+    
+    private LocalDateTime toLocalDateTime(long epochSeconds) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds), ZoneId.systemDefault());
+    }
+}
@@ -1,22 +1,31 @@
 package com.antiscalping.tickets.services;
 
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.dto.SeatDto;
 import com.antiscalping.tickets.dto.TicketDto;
 import com.antiscalping.tickets.dto.TicketPurchaseDto;
 import com.antiscalping.tickets.entities.Ticket;
 import com.antiscalping.tickets.entities.Event;
 import com.antiscalping.tickets.entities.User;
-import com.antiscalping.tickets.entities.AuditLog;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.*;
+import com.antiscalping.tickets.utils.KeysetCursor;
+import com.antiscalping.tickets.utils.KeysetPaging;
 import com.antiscalping.tickets.utils.SecurityUtils;
+import com.antiscalping.tickets.utils.TicketNumberGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,84 +43,188 @@ public class TicketService {
     private UserRepository userRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
     
     @Autowired
     private SecurityUtils securityUtils;
     
+    @Autowired
+    private TicketNumberGenerator ticketNumberGenerator;
+    
+    @Autowired
+    private InventoryService inventoryService;
+    
+    @Autowired
+    private TicketStockService ticketStockService;
+    
+    @Autowired
+    private SeatMapService seatMapService;
+    
+    @Autowired
+    private GateValidationService gateValidationService;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<TicketDto> purchaseTickets(Long userId, TicketPurchaseDto purchaseDto) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Long eventId = purchaseDto.getEventId();
+        int quantity = purchaseDto.getQuantity();
         
-        Event event = eventRepository.findById(purchaseDto.getEventId())
+        if (!inventoryService.reserve(eventId, quantity)) {
+            throw new BadRequestException("Not enough tickets available");
+        }
+        
+        try {
+            return transactionTemplate.execute(status -> issueTickets(userId, eventId, quantity));
+        } catch (RuntimeException e) {
+            inventoryService.release(eventId, quantity);
+            throw e;
+        }
+    }
+    
+    // Inventory was already reserved by the caller, e.g. a confirmed cart hold
+    public List<TicketDto> issueReservedTickets(Long userId, Long eventId, int quantity) {
+        return issueTickets(userId, eventId, quantity);
+    }
+    
+    private List<TicketDto> issueTickets(Long userId, Long eventId, int quantity) {
+        return issueReservedBatch(eventId, List.of(new TicketOrder(userId, quantity))).get(0);
+    }
+    
+    // Issues several orders for one event in a single transaction; inventory was reserved by the caller
+    public List<List<TicketDto>> issueReservedBatch(Long eventId, List<TicketOrder> orders) {
+        Event event = eventRepository.findById(eventId)
             .orElseThrow(() -> new ResourceNotFoundException("Event not found"));
         
-        if (event.getAvailableTickets() < purchaseDto.getQuantity()) {
-            throw new BadRequestException("Not enough tickets available");
+        Set<Long> userIds = orders.stream().map(TicketOrder::userId).collect(Collectors.toSet());
+        Map<Long, User> users = userRepository.findAllById(userIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+        if (users.size() != userIds.size()) {
+            throw new ResourceNotFoundException("User not found");
         }
         
-        List<Ticket> purchasedTickets = new ArrayList<>();
-        
-        for (int i = 0; i < purchaseDto.getQuantity(); i++) {
-            Ticket ticket = Ticket.builder()
-                .event(event)
-                .user(user)
-                .status(Ticket.TicketStatus.AVAILABLE)
-                .ticketNumber(securityUtils.generateTicketNumber(event.getId(), (long)(Math.random() * 1000000)))
-                .qrSeed(securityUtils.generateQRSeed())
-                .transferCount(0)
-                .purchasedAt(LocalDateTime.now())
-                .build();
+        int total = orders.stream().mapToInt(TicketOrder::quantity).sum();
+        LocalDateTime purchasedAt = LocalDateTime.now();
+        List<Ticket> stock = ticketRepository.claimStock(eventId, total);
+        
+        boolean seated = seatMapService.hasSeatMap(eventId);
+        List<List<Ticket>> ticketsByOrder = new ArrayList<>(orders.size());
+        List<Ticket> issued = new ArrayList<>(total);
+        int claimed = 0;
+        
+        for (TicketOrder order : orders) {
+            User user = users.get(order.userId());
+            List<Ticket> tickets = new ArrayList<>(order.quantity());
             
-            Ticket savedTicket = ticketRepository.save(ticket);
-            purchasedTickets.add(savedTicket);
+            for (int i = 0; i < order.quantity(); i++) {
+                Ticket ticket;
+                if (claimed < stock.size()) {
+                    ticket = stock.get(claimed++);
+                    ticket.setUser(user);
+                    ticket.setStatus(Ticket.TicketStatus.AVAILABLE);
+                    ticket.setPurchasedAt(purchasedAt);
+                } else {
+                    // Events created before stock was pre-minted are issued on demand
+                    ticket = Ticket.builder()
+                        .event(event)
+                        .user(user)
+                        .status(Ticket.TicketStatus.AVAILABLE)
+                        .ticketNumber(ticketNumberGenerator.next())
+                        .qrSeed(securityUtils.generateQRSeed())
+                        .transferCount(0)
+                        .purchasedAt(purchasedAt)
+                        .build();
+                }
+                tickets.add(ticket);
+            }
             
-            logAudit(userId, "TICKET_PURCHASED", "TICKET", savedTicket.getId(), null);
+            // Each order gets a contiguous block; seats go back to the map if this transaction rolls back
+            if (seated) {
+                List<SeatDto> seats = seatMapService.allocate(eventId, order.quantity());
+                for (int i = 0; i < tickets.size(); i++) {
+                    tickets.get(i).setSection(seats.get(i).getSection());
+                    tickets.get(i).setRowLabel(seats.get(i).getRowLabel());
+                    tickets.get(i).setSeatNumber(seats.get(i).getSeatNumber());
+                }
+            }
+            
+            ticketsByOrder.add(tickets);
+            issued.addAll(tickets);
         }
         
-        event.setAvailableTickets(event.getAvailableTickets() - purchaseDto.getQuantity());
-        eventRepository.save(event);
+        ticketRepository.saveAll(issued);
         
-        return purchasedTickets.stream().map(this::mapToDto).collect(Collectors.toList());
+        for (int i = 0; i < orders.size(); i++) {
+            Long userId = orders.get(i).userId();
+            for (Ticket ticket : ticketsByOrder.get(i)) {
+                auditService.record(userId, "TICKET_PURCHASED", "TICKET", ticket.getId(), null);
+            }
+        }
+        
+        return ticketsByOrder.stream()
+            .map(tickets -> tickets.stream().map(this::mapToDto).collect(Collectors.toList()))
+            .collect(Collectors.toList());
     }
     
-    public List<TicketDto> getMyTickets(Long userId) {
-        List<Ticket> tickets = ticketRepository.findByUserId(userId);
-        return tickets.stream().map(this::mapToDto).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDto<TicketDto> getMyTickets(Long userId, String cursor, Integer limit) {
+        int size = keysetPaging.pageSize(limit);
+        KeysetCursor position = keysetPaging.position(cursor, KeysetCursor.DESCENDING_START);
+        List<TicketDto> tickets = ticketRepository.findWalletPage(userId, position.at(), position.id(), keysetPaging.fetch(size));
+        return keysetPaging.page(tickets, size, ticket -> new KeysetCursor(ticket.getPurchasedAt(), ticket.getId()));
     }
     
     public TicketDto getTicketById(Long ticketId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findIssuedById(ticketId)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         return mapToDto(ticket);
     }
     
     public TicketDto getTicketByNumber(String ticketNumber) {
-        Ticket ticket = ticketRepository.findByTicketNumber(ticketNumber)
+        // Typos are rejected without a database round trip
+        if (!ticketNumberGenerator.isPlausible(ticketNumber)) {
+            throw new ResourceNotFoundException("Ticket not found");
+        }
+        Ticket ticket = ticketRepository.findIssuedByTicketNumber(ticketNumber)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         return mapToDto(ticket);
     }
     
     public void validateTicket(Long ticketId, Long userId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findIssuedById(ticketId)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         
-        if (!ticket.getUser().getId().equals(userId)) {
+        if (!isOwner(ticket, userId)) {
             throw new BadRequestException("You are not the owner of this ticket");
         }
         
+        if (gateValidationService.isOpen(ticket.getEvent().getId())) {
+            if (!gateValidationService.admit(ticket.getEvent().getId(), ticketId, userId)) {
+                throw new BadRequestException("Ticket has already been validated");
+            }
+            return;
+        }
+        
+        if (ticket.getStatus() == Ticket.TicketStatus.VALIDATED) {
+            throw new BadRequestException("Ticket has already been validated");
+        }
+        
         ticket.setStatus(Ticket.TicketStatus.VALIDATED);
         ticket.setValidatedAt(LocalDateTime.now());
         ticketRepository.save(ticket);
         
-        logAudit(userId, "TICKET_VALIDATED", "TICKET", ticketId, null);
+        auditService.record(userId, "TICKET_VALIDATED", "TICKET", ticketId, null);
     }
     
     public void cancelTicket(Long ticketId, Long userId) {
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findIssuedById(ticketId)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         
-        if (!ticket.getUser().getId().equals(userId)) {
+        if (!isOwner(ticket, userId)) {
             throw new BadRequestException("You are not the owner of this ticket");
         }
         
@@ -122,11 +235,16 @@ public class TicketService {
         ticket.setStatus(Ticket.TicketStatus.CANCELLED);
         ticketRepository.save(ticket);
         
-        Event event = ticket.getEvent();
-        event.setAvailableTickets(event.getAvailableTickets() + 1);
-        eventRepository.save(event);
+        ticketStockService.restock(ticket.getEvent().getId());
+        inventoryService.releaseAfterCommit(ticket.getEvent().getId(), 1);
+        seatMapService.releaseAfterCommit(ticket.getEvent().getId(), ticket.getSection(), ticket.getRowLabel(), ticket.getSeatNumber());
+        gateValidationService.revokeAfterCommit(ticket.getEvent().getId(), ticketId);
         
-        logAudit(userId, "TICKET_CANCELLED", "TICKET", ticketId, null);
+        auditService.record(userId, "TICKET_CANCELLED", "TICKET", ticketId, null);
+    }
+    
+    private static boolean isOwner(Ticket ticket, Long userId) {
+        return ticket.getUser() != null && ticket.getUser().getId().equals(userId);
     }
     
     private TicketDto mapToDto(Ticket ticket) {
@@ -134,9 +252,12 @@ public class TicketService {
             .id(ticket.getId())
             .eventId(ticket.getEvent().getId())
             .eventName(ticket.getEvent().getName())
-            .userId(ticket.getUser().getId())
+            .userId(ticket.getUser() != null ? ticket.getUser().getId() : null)
             .ticketNumber(ticket.getTicketNumber())
             .status(ticket.getStatus().toString())
+            .section(ticket.getSection())
+            .rowLabel(ticket.getRowLabel())
+            .seatNumber(ticket.getSeatNumber())
             .transferCount(ticket.getTransferCount())
             .purchasedAt(ticket.getPurchasedAt())
             .validatedAt(ticket.getValidatedAt())
@@ -144,14 +265,6 @@ public class TicketService {
             .build();
     }
     
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
+    public record TicketOrder(Long userId, int quantity) {
     }
 }
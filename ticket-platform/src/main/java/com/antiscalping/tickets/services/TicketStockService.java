@@ -0,0 +1,71 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.utils.SecurityUtils;
+import com.antiscalping.tickets.utils.TicketNumberGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Transactional
+@Slf4j
+public class TicketStockService {
+    
+    private static final String INSERT_STOCK_SQL =
+        "INSERT INTO tickets (event_id, status, ticket_number, qr_seed, transfer_count, is_pooled, created_at, updated_at) " +
+        "VALUES (?, 'UNSOLD', ?, ?, 0, false, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SecurityUtils securityUtils;
+    
+    @Autowired
+    private TicketNumberGenerator ticketNumberGenerator;
+    
+    @Value("${app.tickets.mint-batch-size:1000}")
+    private int mintBatchSize;
+    
+    public void mintStock(Long eventId, int quantity) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(Math.min(quantity, mintBatchSize));
+        long numbers = ticketNumberGenerator.reserve(quantity);
+        
+        for (int i = 0; i < quantity; i++) {
+            batch.add(new Object[] {
+                eventId,
+                ticketNumberGenerator.numberAt(numbers, i),
+                securityUtils.generateQRSeed(),
+                now,
+                now
+            });
+            if (batch.size() == mintBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_STOCK_SQL, batch);
+        }
+        
+        log.info("Minted {} tickets of stock for event {}", quantity, eventId);
+    }
+    
+    public void restock(Long eventId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(INSERT_STOCK_SQL,
+            eventId,
+            ticketNumberGenerator.next(),
+            securityUtils.generateQRSeed(),
+            now,
+            now);
+    }
+}
@@ -1,15 +1,21 @@
 package com.antiscalping.tickets.services;
 
+import com.antiscalping.tickets.dto.CursorPageDto;
 import com.antiscalping.tickets.dto.TicketTransferDto;
+import com.antiscalping.tickets.dto.TransferSummaryDto;
 import com.antiscalping.tickets.entities.*;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.*;
+import com.antiscalping.tickets.utils.KeysetCursor;
+import com.antiscalping.tickets.utils.KeysetPaging;
+import com.antiscalping.tickets.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Transactional
@@ -29,7 +35,16 @@ public class TicketTransferService {
     private TrustedCircleRepository trustedCircleRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
+    
+    @Autowired
+    private KeysetPaging keysetPaging;
+    
+    @Autowired
+    private SecurityUtils securityUtils;
+    
+    @Autowired
+    private GateValidationService gateValidationService;
     
     public TicketTransfer initiateTransfer(Long fromUserId, TicketTransferDto transferDto) {
         User fromUser = userRepository.findById(fromUserId)
@@ -38,10 +53,10 @@ public class TicketTransferService {
         User toUser = userRepository.findById(transferDto.getRecipientId())
             .orElseThrow(() -> new ResourceNotFoundException("Recipient not found"));
         
-        Ticket ticket = ticketRepository.findById(transferDto.getTicketId())
+        Ticket ticket = ticketRepository.findIssuedById(transferDto.getTicketId())
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
         
-        if (!ticket.getUser().getId().equals(fromUserId)) {
+        if (ticket.getUser() == null || !ticket.getUser().getId().equals(fromUserId)) {
             throw new BadRequestException("You are not the owner of this ticket");
         }
         
@@ -64,7 +79,7 @@ public class TicketTransferService {
         
         TicketTransfer savedTransfer = ticketTransferRepository.save(transfer);
         
-        logAudit(fromUserId, "TRANSFER_INITIATED", "TICKET_TRANSFER", savedTransfer.getId(), null);
+        auditService.record(fromUserId, "TRANSFER_INITIATED", "TICKET_TRANSFER", savedTransfer.getId(), null);
         
         return savedTransfer;
     }
@@ -85,7 +100,7 @@ public class TicketTransferService {
         transfer.setApprovedAt(LocalDateTime.now());
         ticketTransferRepository.save(transfer);
         
-        logAudit(approvingUserId, "TRANSFER_APPROVED", "TICKET_TRANSFER", transferId, null);
+        auditService.record(approvingUserId, "TRANSFER_APPROVED", "TICKET_TRANSFER", transferId, null);
     }
     
     public void completeTransfer(Long transferId) {
@@ -102,13 +117,16 @@ public class TicketTransferService {
         ticket.setTransferCount(ticket.getTransferCount() + 1);
         ticket.setTransferredAt(LocalDateTime.now());
         ticket.setTransferredFrom(transfer.getFromUser().getEmail());
+        // Codes the previous owner saved or screenshotted must not get anyone in
+        ticket.setQrSeed(securityUtils.generateQRSeed());
         ticketRepository.save(ticket);
+        gateValidationService.reissueAfterCommit(ticket.getEvent().getId(), ticket.getId(), ticket.getQrSeed());
         
         transfer.setStatus(TicketTransfer.TransferStatus.COMPLETED);
         transfer.setCompletedAt(LocalDateTime.now());
         ticketTransferRepository.save(transfer);
         
-        logAudit(transfer.getToUser().getId(), "TRANSFER_COMPLETED", "TICKET_TRANSFER", transferId, null);
+        auditService.record(transfer.getToUser().getId(), "TRANSFER_COMPLETED", "TICKET_TRANSFER", transferId, null);
     }
     
     public void rejectTransfer(Long transferId, Long rejectingUserId) {
@@ -122,7 +140,7 @@ public class TicketTransferService {
         transfer.setStatus(TicketTransfer.TransferStatus.REJECTED);
         ticketTransferRepository.save(transfer);
         
-        logAudit(rejectingUserId, "TRANSFER_REJECTED", "TICKET_TRANSFER", transferId, null);
+        auditService.record(rejectingUserId, "TRANSFER_REJECTED", "TICKET_TRANSFER", transferId, null);
     }
     
     private TicketTransfer.TransferType validateTransferType(Long fromUserId, String transferType, User toUser) {
@@ -140,14 +158,19 @@ public class TicketTransferService {
         throw new BadRequestException("Invalid transfer type");
     }
     
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransferSummaryDto> getSentTransfers(Long userId, String cursor, Integer limit) {
+        int size = keysetPaging.pageSize(limit);
+        KeysetCursor position = keysetPaging.position(cursor, KeysetCursor.DESCENDING_START);
+        List<TransferSummaryDto> rows = ticketTransferRepository.findSentPage(userId, position.at(), position.id(), keysetPaging.fetch(size));
+        return keysetPaging.page(rows, size, transfer -> new KeysetCursor(transfer.getCreatedAt(), transfer.getId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransferSummaryDto> getReceivedTransfers(Long userId, String cursor, Integer limit) {
+        int size = keysetPaging.pageSize(limit);
+        KeysetCursor position = keysetPaging.position(cursor, KeysetCursor.DESCENDING_START);
+        List<TransferSummaryDto> rows = ticketTransferRepository.findReceivedPage(userId, position.at(), position.id(), keysetPaging.fetch(size));
+        return keysetPaging.page(rows, size, transfer -> new KeysetCursor(transfer.getCreatedAt(), transfer.getId()));
     }
 }
@@ -0,0 +1,150 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.antiscalping.tickets.utils.BloomFilter;
+import com.antiscalping.tickets.utils.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class TokenRevocationService {
+    
+    private static final String REVOKED_TOKENS_KEY = "auth:revoked:tokens";
+    
+    private static final String REVOKED_USERS_KEY = "auth:revoked:users";
+    
+    private static final String CHANNEL = "auth:revocations";
+    
+    @Autowired
+    private RedisTemplate<String, Object> redisTemplate;
+    
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    @Value("${app.auth.revocation.expected-tokens:100000}")
+    private int expectedTokens;
+    
+    @Value("${app.auth.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+    
+    // Token ids that may be revoked; a miss is a definite "not revoked" with no network hop
+    private volatile BloomFilter revokedTokens;
+    
+    // User id -> epoch millis; tokens issued at or before it are revoked
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+    
+    // Token ids heard over pub/sub since the last rebuild started, with the time they arrived
+    private final Map<String, Long> recentTokens = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        revokedTokens = new BloomFilter(expectedTokens, falsePositiveRate);
+        listenerContainer.addMessageListener(
+            (message, pattern) -> apply(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(CHANNEL));
+        rebuild();
+    }
+    
+    public boolean isRevoked(String userId, String tokenId, long issuedAtMs) {
+        Long cutoff = userCutoffs.get(userId);
+        if (cutoff != null && issuedAtMs <= cutoff) {
+            return true;
+        }
+        if (tokenId == null || !revokedTokens.mightContain(tokenId)) {
+            return false;
+        }
+        
+        // Only filter hits, real or false positive, pay for the exact check
+        try {
+            return redisTemplate.opsForZSet().score(REVOKED_TOKENS_KEY, tokenId) != null;
+        } catch (RuntimeException e) {
+            log.warn("Could not confirm revocation of token {}; treating it as revoked: {}", tokenId, e.getMessage());
+            return true;
+        }
+    }
+    
+    public void revokeToken(String token) {
+        Claims claims;
+        try {
+            claims = tokenProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new BadRequestException("Invalid token");
+        }
+        if (claims.getId() == null) {
+            throw new BadRequestException("Token has no id and cannot be revoked individually");
+        }
+        
+        long expiresAtMs = claims.getExpiration().getTime();
+        redisTemplate.opsForZSet().add(REVOKED_TOKENS_KEY, claims.getId(), expiresAtMs);
+        publish("token:" + claims.getId() + ":" + expiresAtMs);
+    }
+    
+    public void revokeUser(Long userId) {
+        long cutoff = System.currentTimeMillis();
+        redisTemplate.opsForHash().put(REVOKED_USERS_KEY, userId.toString(), Long.toString(cutoff));
+        publish("user:" + userId + ":" + cutoff);
+    }
+    
+    // Reloads from Redis so expired token ids drop out of the filter
+    @Scheduled(fixedDelayString = "${app.auth.revocation.rebuild-interval-ms:300000}", initialDelayString = "${app.auth.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(REVOKED_TOKENS_KEY, Double.NEGATIVE_INFINITY, started);
+            Set<Object> tokenIds = redisTemplate.opsForZSet().rangeByScore(REVOKED_TOKENS_KEY, started, Double.POSITIVE_INFINITY);
+            Map<Object, Object> users = redisTemplate.opsForHash().entries(REVOKED_USERS_KEY);
+            
+            int size = tokenIds != null ? tokenIds.size() : 0;
+            BloomFilter filter = new BloomFilter(Math.max(expectedTokens, size * 2), falsePositiveRate);
+            if (tokenIds != null) {
+                tokenIds.forEach(tokenId -> filter.put(tokenId.toString()));
+            }
+            revokedTokens = filter;
+            // Anything published while the snapshot was read, or before the swap, is not in it yet
+            recentTokens.keySet().forEach(filter::put);
+            recentTokens.values().removeIf(receivedAt -> receivedAt < started);
+            
+            users.forEach((userId, cutoff) -> userCutoffs.merge(userId.toString(), Long.parseLong(cutoff.toString()), Math::max));
+            log.debug("Revocation filter rebuilt with {} tokens and {} users", size, userCutoffs.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not rebuild token revocations from Redis: {}", e.getMessage());
+        }
+    }
+    
+    private void publish(String message) {
+        // Applied locally first so this instance never waits on its own broadcast
+        apply(message);
+        redisTemplate.convertAndSend(CHANNEL, message);
+    }
+    
+    private void apply(String message) {
+        String[] parts = message.split(":");
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed revocation message {}", message);
+            return;
+        }
+        if ("token".equals(parts[0])) {
+            recentTokens.put(parts[1], System.currentTimeMillis());
+            revokedTokens.put(parts[1]);
+        } else if ("user".equals(parts[0])) {
+            userCutoffs.merge(parts[1], Long.parseLong(parts[2]), Math::max);
+        }
+    }
+}
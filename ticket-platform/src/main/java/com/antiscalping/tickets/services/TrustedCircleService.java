@@ -2,12 +2,10 @@ package com.antiscalping.tickets.services;
 
 import com.antiscalping.tickets.entities.User;
 import com.antiscalping.tickets.entities.TrustedCircle;
-import com.antiscalping.tickets.entities.AuditLog;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.UserRepository;
 import com.antiscalping.tickets.repositories.TrustedCircleRepository;
-import com.antiscalping.tickets.repositories.AuditLogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,7 +25,7 @@ public class TrustedCircleService {
     private UserRepository userRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
     
     public TrustedCircle addTrustedUser(Long userId, Long trustedUserId, String relationship) {
         if (userId.equals(trustedUserId)) {
@@ -52,7 +50,7 @@ public class TrustedCircleService {
         
         TrustedCircle savedCircle = trustedCircleRepository.save(trustedCircle);
         
-        logAudit(userId, "TRUSTED_USER_ADDED", "TRUSTED_CIRCLE", savedCircle.getId(), null);
+        auditService.record(userId, "TRUSTED_USER_ADDED", "TRUSTED_CIRCLE", savedCircle.getId(), null);
         
         return savedCircle;
     }
@@ -63,7 +61,7 @@ public class TrustedCircleService {
         
         trustedCircleRepository.delete(trustedCircle);
         
-        logAudit(userId, "TRUSTED_USER_REMOVED", "TRUSTED_CIRCLE", trustedCircle.getId(), null);
+        auditService.record(userId, "TRUSTED_USER_REMOVED", "TRUSTED_CIRCLE", trustedCircle.getId(), null);
     }
     
     public List<TrustedCircle> getTrustedCircle(Long userId) {
@@ -73,15 +71,4 @@ public class TrustedCircleService {
     public boolean isTrusted(Long userId, Long trustedUserId) {
         return trustedCircleRepository.existsByUserIdAndTrustedUserId(userId, trustedUserId);
     }
-    
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userRepository.findById(userId).orElse(null))
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
-    }
 }
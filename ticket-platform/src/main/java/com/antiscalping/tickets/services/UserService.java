@@ -4,11 +4,9 @@ import com.antiscalping.tickets.dto.UserDto;
 import com.antiscalping.tickets.dto.UserLoginDto;
 import com.antiscalping.tickets.dto.UserRegistrationDto;
 import com.antiscalping.tickets.entities.User;
-import com.antiscalping.tickets.entities.AuditLog;
 import com.antiscalping.tickets.exceptions.BadRequestException;
 import com.antiscalping.tickets.exceptions.ResourceNotFoundException;
 import com.antiscalping.tickets.repositories.UserRepository;
-import com.antiscalping.tickets.repositories.AuditLogRepository;
 import com.antiscalping.tickets.utils.JwtTokenProvider;
 import com.antiscalping.tickets.utils.SecurityUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,7 +24,7 @@ public class UserService {
     private UserRepository userRepository;
     
     @Autowired
-    private AuditLogRepository auditLogRepository;
+    private AuditService auditService;
     
     @Autowired
     private JwtTokenProvider tokenProvider;
@@ -34,6 +32,9 @@ public class UserService {
     @Autowired
     private SecurityUtils securityUtils;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
     public UserDto register(UserRegistrationDto registrationDto) throws NoSuchAlgorithmException {
         if (userRepository.existsByEmail(registrationDto.getEmail())) {
             throw new BadRequestException("Email already exists");
@@ -50,7 +51,7 @@ public class UserService {
         
         User savedUser = userRepository.save(user);
         
-        logAudit(savedUser.getId(), "USER_REGISTERED", "USER", savedUser.getId(), null);
+        auditService.record(savedUser.getId(), "USER_REGISTERED", "USER", savedUser.getId(), null);
         
         return mapToDto(savedUser);
     }
@@ -67,7 +68,7 @@ public class UserService {
             throw new BadRequestException("User account is inactive");
         }
         
-        logAudit(user.getId(), "USER_LOGIN", "USER", user.getId(), null);
+        auditService.record(user.getId(), "USER_LOGIN", "USER", user.getId(), null);
         
         return tokenProvider.generateToken(user.getId().toString());
     }
@@ -100,7 +101,7 @@ public class UserService {
         
         User updatedUser = userRepository.save(user);
         
-        logAudit(userId, "USER_UPDATED", "USER", userId, null);
+        auditService.record(userId, "USER_UPDATED", "USER", userId, null);
         
         return mapToDto(updatedUser);
     }
@@ -111,8 +112,9 @@ public class UserService {
         
         user.setStatus(User.UserStatus.SUSPENDED);
         userRepository.save(user);
+        tokenRevocationService.revokeUser(userId);
         
-        logAudit(userId, "USER_SUSPENDED", "USER", userId, reason);
+        auditService.record(userId, "USER_SUSPENDED", "USER", userId, reason);
     }
     
     private UserDto mapToDto(User user) {
@@ -127,15 +129,4 @@ public class UserService {
             .updatedAt(user.getUpdatedAt())
             .build();
     }
-    
-    private void logAudit(Long userId, String action, String entityType, Long entityId, String details) {
-        AuditLog auditLog = AuditLog.builder()
-            .user(userId != null ? userRepository.findById(userId).orElse(null) : null)
-            .action(action)
-            .entityType(entityType)
-            .entityId(entityId)
-            .details(details)
-            .build();
-        auditLogRepository.save(auditLog);
-    }
 }
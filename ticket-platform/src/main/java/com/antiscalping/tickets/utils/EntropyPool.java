@@ -0,0 +1,124 @@
+package com.antiscalping.tickets.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+@Component
+@Slf4j
+public class EntropyPool {
+    
+    private static final int SEED_BYTES = 32;
+    
+    private static final int TOKEN_BYTES = 20;
+    
+    @Value("${app.entropy.pool-size:4096}")
+    private int poolSize;
+    
+    // One DRBG per thread, so callers never queue on a shared generator's lock
+    private final ThreadLocal<SecureRandom> random = ThreadLocal.withInitial(EntropyPool::newDrbg);
+    
+    private final ThreadLocal<byte[]> seedBytes = ThreadLocal.withInitial(() -> new byte[SEED_BYTES]);
+    
+    private final ThreadLocal<byte[]> seedChars = ThreadLocal.withInitial(() -> new byte[TokenCodec.hexLength(SEED_BYTES)]);
+    
+    // Lock-free, so taking a seed never contends with other callers or with the refill thread
+    private Queue<String> seeds;
+    
+    private final AtomicInteger available = new AtomicInteger();
+    
+    private Thread refiller;
+    
+    private volatile boolean running;
+    
+    public EntropyPool() {
+    }
+    
+    // For use outside Spring, e.g. benchmarks
+    public EntropyPool(int poolSize) {
+        this.poolSize = poolSize;
+        init();
+    }
+    
+    @PostConstruct
+    public void init() {
+        if (poolSize <= 0) {
+            return;
+        }
+        seeds = new ConcurrentLinkedQueue<>();
+        running = true;
+        refiller = new Thread(this::refill, "entropy-refill");
+        refiller.setDaemon(true);
+        refiller.start();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (refiller != null) {
+            running = false;
+            LockSupport.unpark(refiller);
+        }
+    }
+    
+    // 64 hex characters; taken from the pre-generated pool when it has any, otherwise generated inline
+    public String nextSeed() {
+        String seed = seeds != null ? seeds.poll() : null;
+        if (seed == null) {
+            return newSeed();
+        }
+        // Every take passes through the halfway mark on the way down, so exactly one of them wakes the refill
+        if (available.decrementAndGet() == poolSize / 2) {
+            LockSupport.unpark(refiller);
+        }
+        return seed;
+    }
+    
+    public String nextToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.get().nextBytes(bytes);
+        return TokenCodec.base32(bytes);
+    }
+    
+    public void nextBytes(byte[] bytes) {
+        random.get().nextBytes(bytes);
+    }
+    
+    // Tops the pool up to poolSize, then sleeps until it has drained to half
+    private void refill() {
+        while (running) {
+            while (running && available.get() < poolSize) {
+                seeds.offer(newSeed());
+                available.incrementAndGet();
+            }
+            LockSupport.park(this);
+        }
+    }
+    
+    private String newSeed() {
+        byte[] bytes = seedBytes.get();
+        byte[] chars = seedChars.get();
+        random.get().nextBytes(bytes);
+        TokenCodec.encodeHex(bytes, chars, 0);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+    
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG",
+                DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, null));
+        } catch (NoSuchAlgorithmException e) {
+            log.warn("DRBG is not available, falling back to the default SecureRandom");
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.antiscalping.tickets.utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class EntryRoster {
+    
+    // Slots are ordered by ticket id so lookups by id are a binary search
+    private final long[] ticketIds;
+    
+    private final String[] ticketNumbers;
+    
+    // Replaced when a ticket changes hands so codes rendered for the previous owner stop matching
+    private final AtomicReferenceArray<String> seedTags;
+    
+    private final Map<String, Integer> slotsByNumber;
+    
+    // One bit per slot; the first compare-and-set on a bit wins the scan
+    private final AtomicLongArray scanned;
+    
+    private final AtomicLongArray revoked;
+    
+    private final AtomicInteger scannedCount = new AtomicInteger();
+    
+    public EntryRoster(List<Entry> entries) {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, Comparator.comparingLong(Entry::ticketId));
+        
+        int size = sorted.length;
+        ticketIds = new long[size];
+        ticketNumbers = new String[size];
+        seedTags = new AtomicReferenceArray<>(size);
+        slotsByNumber = new HashMap<>(size * 4 / 3 + 1);
+        scanned = new AtomicLongArray((size + 63) >>> 6);
+        revoked = new AtomicLongArray((size + 63) >>> 6);
+        
+        for (int slot = 0; slot < size; slot++) {
+            Entry entry = sorted[slot];
+            ticketIds[slot] = entry.ticketId();
+            ticketNumbers[slot] = entry.ticketNumber();
+            seedTags.set(slot, entry.seedTag());
+            slotsByNumber.put(entry.ticketNumber(), slot);
+            if (entry.scanned()) {
+                setBit(scanned, slot);
+                scannedCount.incrementAndGet();
+            }
+        }
+    }
+    
+    public int slotOf(long ticketId) {
+        int slot = Arrays.binarySearch(ticketIds, ticketId);
+        return slot >= 0 ? slot : -1;
+    }
+    
+    public int slotOf(String ticketNumber) {
+        Integer slot = slotsByNumber.get(ticketNumber);
+        return slot != null ? slot : -1;
+    }
+    
+    public long ticketId(int slot) {
+        return ticketIds[slot];
+    }
+    
+    public String ticketNumber(int slot) {
+        return ticketNumbers[slot];
+    }
+    
+    public String seedTag(int slot) {
+        return seedTags.get(slot);
+    }
+    
+    public void reissue(int slot, String seedTag) {
+        seedTags.set(slot, seedTag);
+    }
+    
+    public boolean isRevoked(int slot) {
+        return (revoked.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+    
+    public boolean isScanned(int slot) {
+        return (scanned.get(slot >>> 6) & (1L << slot)) != 0;
+    }
+    
+    // True only for the first caller; every later scan of the slot sees it as taken
+    public boolean claim(int slot) {
+        if (isRevoked(slot) || !setBit(scanned, slot)) {
+            return false;
+        }
+        scannedCount.incrementAndGet();
+        return true;
+    }
+    
+    public void revoke(int slot) {
+        setBit(revoked, slot);
+    }
+    
+    public int size() {
+        return ticketIds.length;
+    }
+    
+    public int scannedCount() {
+        return scannedCount.get();
+    }
+    
+    private static boolean setBit(AtomicLongArray bits, int slot) {
+        int word = slot >>> 6;
+        long mask = 1L << slot;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+    
+    public record Entry(long ticketId, String ticketNumber, String seedTag, boolean scanned) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.antiscalping.tickets.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HierarchicalTimingWheel<T> {
+    
+    private final long tickMs;
+    
+    private final int wheelSize;
+    
+    private final long interval;
+    
+    private final List<List<Entry<T>>> buckets;
+    
+    private long currentTime;
+    
+    private HierarchicalTimingWheel<T> overflowWheel;
+    
+    private int size;
+    
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+    
+    public synchronized void schedule(T item, long expiresAtMs) {
+        add(new Entry<>(item, expiresAtMs));
+        size++;
+    }
+    
+    public synchronized List<T> advance(long nowMs) {
+        List<T> expired = new ArrayList<>();
+        while (currentTime + tickMs <= nowMs) {
+            for (Entry<T> entry : takeCurrentWindow()) {
+                expired.add(entry.item());
+            }
+        }
+        size -= expired.size();
+        return expired;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+    
+    private List<Entry<T>> takeCurrentWindow() {
+        cascade();
+        List<Entry<T>> bucket = buckets.get(index(currentTime));
+        List<Entry<T>> taken = new ArrayList<>(bucket);
+        bucket.clear();
+        currentTime += tickMs;
+        return taken;
+    }
+    
+    // Entries move down from the coarser wheel once they fall inside this wheel's span
+    private void cascade() {
+        if (overflowWheel == null) {
+            return;
+        }
+        while (overflowWheel.currentTime <= currentTime) {
+            for (Entry<T> entry : overflowWheel.takeCurrentWindow()) {
+                add(entry);
+            }
+        }
+    }
+    
+    private void add(Entry<T> entry) {
+        long expiresAt = Math.max(entry.expiresAt(), currentTime);
+        if (expiresAt < currentTime + interval) {
+            buckets.get(index(expiresAt)).add(entry);
+            return;
+        }
+        if (overflowWheel == null) {
+            overflowWheel = new HierarchicalTimingWheel<>(interval, wheelSize, currentTime);
+        }
+        overflowWheel.add(entry);
+    }
+    
+    private int index(long time) {
+        return (int) ((time / tickMs) % wheelSize);
+    }
+    
+    private record Entry<T>(T item, long expiresAt) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.antiscalping.tickets.utils;
+
+import org.springframework.dao.TransientDataAccessException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+public class JitteredRetry {
+    
+    private final int maxAttempts;
+    
+    private final long baseDelayMs;
+    
+    private final long maxDelayMs;
+    
+    public JitteredRetry(int maxAttempts, long baseDelayMs, long maxDelayMs) {
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+    }
+    
+    // Retries lock timeouts, deadlocks and serialization failures; onRetry receives the attempt that failed
+    public <T> T execute(Supplier<T> action, IntConsumer onRetry) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                onRetry.accept(attempt);
+                sleep(backoff(attempt));
+            }
+        }
+    }
+    
+    // Full jitter keeps retrying buyers from lining up on the same row again
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+    
+    private void sleep(long delayMs) {
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+}
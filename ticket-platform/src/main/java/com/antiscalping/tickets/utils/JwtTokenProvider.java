@@ -4,8 +4,11 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
 import java.util.Date;
 
 @Component
@@ -17,8 +20,20 @@ public class JwtTokenProvider {
     @Value("${app.jwt.expiration:86400000}")
     private long jwtExpirationMs;
     
+    @Autowired
+    private EntropyPool entropyPool;
+    
+    // Immutable and thread-safe, so it is built once instead of per token
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parser().setSigningKey(jwtSecret).build();
+    }
+    
     public String generateToken(String userId) {
         return Jwts.builder()
+            .setId(entropyPool.nextToken())
             .setSubject(userId)
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
@@ -26,17 +41,18 @@ public class JwtTokenProvider {
             .compact();
     }
     
+    // Verifies the signature and expiry in one pass; throws JwtException when either fails
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-            .setSigningKey(jwtSecret)
-            .parseClaimsJws(token)
-            .getBody();
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
     
     public boolean validateToken(String token) {
         try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
@@ -0,0 +1,29 @@
+package com.antiscalping.tickets.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Opaque continuation token for listings ordered by (timestamp, id); the next page starts strictly after it
+public record KeysetCursor(LocalDateTime at, long id) {
+    
+    // Positions before the first row of an ascending or descending listing; both fit a Postgres timestamp
+    public static final KeysetCursor ASCENDING_START = new KeysetCursor(LocalDateTime.of(1970, 1, 1, 0, 0), Long.MIN_VALUE);
+    
+    public static final KeysetCursor DESCENDING_START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+    
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((at + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static KeysetCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(value.substring(0, separator)), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.antiscalping.tickets.utils;
+
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.exceptions.BadRequestException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class KeysetPaging {
+    
+    private static final TypeReference<LinkedHashMap<String, Object>> ITEM_TYPE = new TypeReference<>() {};
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${app.pagination.default-page-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${app.pagination.max-page-size:200}")
+    private int maxPageSize;
+    
+    public int pageSize(Integer limit) {
+        return limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+    }
+    
+    public boolean isDefaultSize(Integer limit) {
+        return pageSize(limit) == defaultPageSize;
+    }
+    
+    public KeysetCursor position(String cursor, KeysetCursor start) {
+        if (cursor == null || cursor.isBlank()) {
+            return start;
+        }
+        try {
+            return KeysetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+    
+    // Asks for one extra row so the next cursor is only issued when another page exists, without a COUNT
+    public Pageable fetch(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+    
+    public <T> CursorPageDto<T> page(List<T> rows, int size, Function<T, KeysetCursor> positionOf) {
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = positionOf.apply(rows.get(size - 1)).encode();
+        }
+        return CursorPageDto.<T>builder()
+            .items(rows)
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    // Keeps only the requested properties of each item; null or blank keeps them all
+    public CursorPageDto<?> selectFields(CursorPageDto<?> page, String fields, Class<?> itemType) {
+        if (fields == null || fields.isBlank()) {
+            return page;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+            .map(String::trim)
+            .filter(field -> !field.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> known = objectMapper.getSerializationConfig().introspect(objectMapper.constructType(itemType))
+            .findProperties().stream()
+            .map(BeanPropertyDefinition::getName)
+            .collect(Collectors.toSet());
+        if (!known.containsAll(selected)) {
+            selected.removeAll(known);
+            throw new BadRequestException("Unknown fields: " + String.join(",", selected));
+        }
+        
+        List<Map<String, Object>> items = new ArrayList<>(page.getItems().size());
+        for (Object item : page.getItems()) {
+            Map<String, Object> values = objectMapper.convertValue(item, ITEM_TYPE);
+            values.keySet().retainAll(selected);
+            items.add(values);
+        }
+        return CursorPageDto.<Map<String, Object>>builder()
+            .items(items)
+            .nextCursor(page.getNextCursor())
+            .build();
+    }
+}
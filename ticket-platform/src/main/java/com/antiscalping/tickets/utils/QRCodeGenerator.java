@@ -1,6 +1,7 @@
 package com.antiscalping.tickets.utils;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
@@ -9,12 +10,16 @@ import org.springframework.stereotype.Component;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Base64;
+import java.util.Map;
 
 @Component
 public class QRCodeGenerator {
     
     private static final int QR_WIDTH = 300;
     private static final int QR_HEIGHT = 300;
+    private static final int QUIET_ZONE = 4;
+    
+    private static final Map<EncodeHintType, Object> MODULE_HINTS = Map.of(EncodeHintType.MARGIN, 0);
     
     public String generateQRCode(String data) throws WriterException, IOException {
         QRCodeWriter qrCodeWriter = new QRCodeWriter();
@@ -31,4 +36,51 @@ public class QRCodeGenerator {
         String qrData = String.format("TICKET:%s|EVENT:%s|TIME:%d", ticketNumber, eventName, System.currentTimeMillis());
         return generateQRCode(qrData);
     }
+    
+    // One bit per module with no quiet zone, for clients that draw the code themselves
+    public BitMatrix encodeModules(String data) throws WriterException {
+        return new QRCodeWriter().encode(data, BarcodeFormat.QR_CODE, 0, 0, MODULE_HINTS);
+    }
+    
+    // Dark modules as one path of horizontal runs, scaled by the client through the viewBox
+    public String toSvg(BitMatrix modules) {
+        int size = modules.getWidth();
+        int viewSize = size + 2 * QUIET_ZONE;
+        StringBuilder svg = new StringBuilder(size * size / 2 + 256);
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(viewSize).append(' ').append(viewSize)
+            .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        
+        for (int y = 0; y < size; y++) {
+            int x = 0;
+            while (x < size) {
+                if (!modules.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int run = 1;
+                while (x + run < size && modules.get(x + run, y)) {
+                    run++;
+                }
+                svg.append('M').append(x + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                    .append('h').append(run).append("v1h-").append(run).append('z');
+                x += run;
+            }
+        }
+        return svg.append("\"/></svg>").toString();
+    }
+    
+    // Row-major module bits, most significant bit first, Base64-encoded
+    public String toPackedModules(BitMatrix modules) {
+        int size = modules.getWidth();
+        byte[] packed = new byte[(size * size + 7) / 8];
+        int bit = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++, bit++) {
+                if (modules.get(x, y)) {
+                    packed[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+                }
+            }
+        }
+        return Base64.getEncoder().encodeToString(packed);
+    }
 }
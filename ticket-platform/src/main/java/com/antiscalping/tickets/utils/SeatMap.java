@@ -0,0 +1,141 @@
+package com.antiscalping.tickets.utils;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SeatMap {
+    
+    private final String[] sections;
+    
+    private final String[] rowLabels;
+    
+    private final int[] seatCounts;
+    
+    // One bit per seat, set when the seat is taken
+    private final BitSet[] taken;
+    
+    private final int[] free;
+    
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+    
+    private int available;
+    
+    public SeatMap(List<Row> rows) {
+        int size = rows.size();
+        sections = new String[size];
+        rowLabels = new String[size];
+        seatCounts = new int[size];
+        taken = new BitSet[size];
+        free = new int[size];
+        
+        for (int i = 0; i < size; i++) {
+            Row row = rows.get(i);
+            sections[i] = row.section();
+            rowLabels[i] = row.rowLabel();
+            seatCounts[i] = row.seatCount();
+            taken[i] = new BitSet(row.seatCount());
+            free[i] = row.seatCount();
+            available += row.seatCount();
+            rowIndex.put(key(row.section(), row.rowLabel()), i);
+        }
+    }
+    
+    public synchronized Block findBest(int quantity) {
+        for (int row = 0; row < taken.length; row++) {
+            int start = bestStartInRow(row, quantity);
+            if (start >= 0) {
+                return new Block(sections[row], rowLabels[row], start + 1, quantity);
+            }
+        }
+        return null;
+    }
+    
+    public synchronized Block allocateBest(int quantity) {
+        Block block = findBest(quantity);
+        if (block != null) {
+            int row = rowIndex.get(key(block.section(), block.rowLabel()));
+            taken[row].set(block.firstSeat() - 1, block.firstSeat() - 1 + quantity);
+            free[row] -= quantity;
+            available -= quantity;
+        }
+        return block;
+    }
+    
+    public synchronized boolean markTaken(String section, String rowLabel, int seatNumber) {
+        Integer row = rowIndex.get(key(section, rowLabel));
+        if (row == null || seatNumber < 1 || seatNumber > seatCounts[row] || taken[row].get(seatNumber - 1)) {
+            return false;
+        }
+        taken[row].set(seatNumber - 1);
+        free[row]--;
+        available--;
+        return true;
+    }
+    
+    public synchronized void release(String section, String rowLabel, int seatNumber) {
+        Integer row = rowIndex.get(key(section, rowLabel));
+        if (row != null && seatNumber >= 1 && seatNumber <= seatCounts[row] && taken[row].get(seatNumber - 1)) {
+            taken[row].clear(seatNumber - 1);
+            free[row]++;
+            available++;
+        }
+    }
+    
+    public synchronized int available() {
+        return available;
+    }
+    
+    public synchronized int available(String section, String rowLabel) {
+        Integer row = rowIndex.get(key(section, rowLabel));
+        return row != null ? free[row] : 0;
+    }
+    
+    // Picks the free run closest to the middle of the row
+    private int bestStartInRow(int row, int quantity) {
+        int seats = seatCounts[row];
+        if (free[row] < quantity) {
+            return -1;
+        }
+        
+        BitSet bits = taken[row];
+        int ideal = (seats - quantity) / 2;
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        
+        int start = bits.nextClearBit(0);
+        while (start + quantity <= seats) {
+            int end = bits.nextSetBit(start);
+            if (end < 0 || end > seats) {
+                end = seats;
+            }
+            if (end - start >= quantity) {
+                int candidate = Math.min(Math.max(ideal, start), end - quantity);
+                int distance = Math.abs(candidate - ideal);
+                if (distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                    if (distance == 0) {
+                        break;
+                    }
+                }
+            }
+            if (end >= seats) {
+                break;
+            }
+            start = bits.nextClearBit(end);
+        }
+        return best;
+    }
+    
+    private static String key(String section, String rowLabel) {
+        return section + '\u0000' + rowLabel;
+    }
+    
+    public record Row(String section, String rowLabel, int seatCount) {
+    }
+    
+    public record Block(String section, String rowLabel, int firstSeat, int quantity) {
+    }
+}
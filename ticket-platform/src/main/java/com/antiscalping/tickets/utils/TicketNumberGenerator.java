@@ -0,0 +1,130 @@
+package com.antiscalping.tickets.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+@Component
+public class TicketNumberGenerator {
+    
+    // 2024-01-01T00:00:00Z; 41 bits of milliseconds from here last until 2093
+    private static final long EPOCH_MS = 1704067200000L;
+    
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    
+    private static final String PREFIX = "TKT-";
+    private static final int ID_CHARS = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    
+    // TKT-{eventId}-{ticketId}-{8 hex}, issued before these numbers existed
+    private static final Pattern LEGACY = Pattern.compile("TKT-\\d+-\\d+-[0-9A-F]{8}");
+    
+    @Value("${app.tickets.node-id:0}")
+    private int nodeId;
+    
+    // Milliseconds since EPOCH_MS shifted left by SEQUENCE_BITS, plus the sequence; a full
+    // sequence carries into the next millisecond, so ids stay unique and ordered under bursts
+    private final AtomicLong state = new AtomicLong();
+    
+    public TicketNumberGenerator() {
+    }
+    
+    // For use outside Spring, e.g. benchmarks
+    public TicketNumberGenerator(int nodeId) {
+        this.nodeId = nodeId;
+        init();
+    }
+    
+    @PostConstruct
+    public void init() {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("app.tickets.node-id must be between 0 and " + MAX_NODE_ID + " but was " + nodeId);
+        }
+    }
+    
+    public String next() {
+        return format(idAt(reserve(1)));
+    }
+    
+    // Reserves count consecutive ids with a single compare-and-set; pass the result to numberAt
+    public long reserve(int count) {
+        while (true) {
+            long last = state.get();
+            long first = Math.max(last + 1, (System.currentTimeMillis() - EPOCH_MS) << SEQUENCE_BITS);
+            if (state.compareAndSet(last, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+    
+    public String numberAt(long block, int index) {
+        return format(idAt(block + index));
+    }
+    
+    public boolean isValid(String ticketNumber) {
+        if (ticketNumber == null || ticketNumber.length() != PREFIX.length() + ID_CHARS + 1 || !ticketNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        int sum = 0;
+        int factor = 1;
+        for (int i = ticketNumber.length() - 1; i >= PREFIX.length(); i--) {
+            int value = valueOf(ticketNumber.charAt(i));
+            if (value < 0) {
+                return false;
+            }
+            int addend = factor * value;
+            sum += addend / ALPHABET.length + addend % ALPHABET.length;
+            factor = 3 - factor;
+        }
+        return sum % ALPHABET.length == 0;
+    }
+    
+    // Cheap pre-check before a lookup: a current number must pass its check character; older tickets
+    // keep the legacy format, which has none and only gets a shape check
+    public boolean isPlausible(String ticketNumber) {
+        return isValid(ticketNumber) || (ticketNumber != null && LEGACY.matcher(ticketNumber).matches());
+    }
+    
+    private long idAt(long position) {
+        long millis = position >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | (position & SEQUENCE_MASK);
+    }
+    
+    // Fixed-width Crockford base32 so numbers sort like the ids, followed by a Luhn mod 32 check character
+    private static String format(long id) {
+        char[] chars = new char[PREFIX.length() + ID_CHARS + 1];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        
+        int sum = 0;
+        int factor = 2;
+        long remaining = id;
+        for (int i = PREFIX.length() + ID_CHARS - 1; i >= PREFIX.length(); i--) {
+            int value = (int) (remaining & 31);
+            remaining >>>= 5;
+            chars[i] = ALPHABET[value];
+            
+            int addend = factor * value;
+            sum += addend / ALPHABET.length + addend % ALPHABET.length;
+            factor = 3 - factor;
+        }
+        chars[chars.length - 1] = ALPHABET[(ALPHABET.length - sum % ALPHABET.length) % ALPHABET.length];
+        return new String(chars);
+    }
+    
+    private static int valueOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        for (int i = 10; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
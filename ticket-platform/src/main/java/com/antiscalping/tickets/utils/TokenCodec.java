@@ -0,0 +1,63 @@
+package com.antiscalping.tickets.utils;
+
+import java.nio.charset.StandardCharsets;
+
+// Lookup-table encoders that write into caller-owned buffers, so hot paths can reuse them
+public final class TokenCodec {
+    
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final byte[] BASE32 = "abcdefghijklmnopqrstuvwxyz234567".getBytes(StandardCharsets.US_ASCII);
+    
+    private TokenCodec() {
+    }
+    
+    public static int hexLength(int bytes) {
+        return bytes * 2;
+    }
+    
+    public static int base32Length(int bytes) {
+        return (bytes * 8 + 4) / 5;
+    }
+    
+    // Returns the index after the last character written
+    public static int encodeHex(byte[] src, byte[] dst, int offset) {
+        int out = offset;
+        for (byte b : src) {
+            dst[out++] = HEX[(b >>> 4) & 0x0f];
+            dst[out++] = HEX[b & 0x0f];
+        }
+        return out;
+    }
+    
+    // RFC 4648 alphabet in lower case, without padding
+    public static int encodeBase32(byte[] src, byte[] dst, int offset) {
+        int out = offset;
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : src) {
+            buffer = (buffer << 8) | (b & 0xff);
+            bits += 8;
+            while (bits >= 5) {
+                bits -= 5;
+                dst[out++] = BASE32[(buffer >>> bits) & 0x1f];
+            }
+        }
+        if (bits > 0) {
+            dst[out++] = BASE32[(buffer << (5 - bits)) & 0x1f];
+        }
+        return out;
+    }
+    
+    public static String hex(byte[] src) {
+        byte[] chars = new byte[hexLength(src.length)];
+        encodeHex(src, chars, 0);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+    
+    public static String base32(byte[] src) {
+        byte[] chars = new byte[base32Length(src.length)];
+        encodeBase32(src, chars, 0);
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,99 @@
+package com.antiscalping.tickets.verifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+final class QrCrypto {
+    
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    
+    static final String SIGNATURE_ALGORITHM = "Ed25519";
+    
+    private static final int SEED_TAG_BYTES = 6;
+    
+    private static final ThreadLocal<Mac> MAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    });
+    
+    private static final ThreadLocal<Signature> SIGNATURE = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not available", e);
+        }
+    });
+    
+    private QrCrypto() {
+    }
+    
+    static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = MAC.get();
+            mac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to compute HMAC", e);
+        }
+    }
+    
+    static String signature(PrivateKey key, String signedPart) {
+        try {
+            Signature signer = SIGNATURE.get();
+            signer.initSign(key);
+            signer.update(signedPart.getBytes(StandardCharsets.UTF_8));
+            return encode(signer.sign());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign QR payload", e);
+        }
+    }
+    
+    static boolean signatureMatches(PublicKey key, String signedPart, String signature) {
+        try {
+            Signature verifier = SIGNATURE.get();
+            verifier.initVerify(key);
+            verifier.update(signedPart.getBytes(StandardCharsets.UTF_8));
+            return verifier.verify(decode(signature));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    static String seedTag(String qrSeed) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(qrSeed.getBytes(StandardCharsets.UTF_8));
+            return encode(Arrays.copyOf(digest, SEED_TAG_BYTES));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    static PublicKey decodePublicKey(String encodedKey) {
+        try {
+            return KeyFactory.getInstance(SIGNATURE_ALGORITHM).generatePublic(new X509EncodedKeySpec(decode(encodedKey)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalArgumentException("Not an Ed25519 public key", e);
+        }
+    }
+    
+    static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+    
+    static byte[] decode(String text) {
+        return Base64.getUrlDecoder().decode(text);
+    }
+}
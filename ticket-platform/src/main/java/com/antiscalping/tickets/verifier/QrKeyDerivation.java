@@ -0,0 +1,77 @@
+package com.antiscalping.tickets.verifier;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.spec.NamedParameterSpec;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Server side: each event's Ed25519 key pair is derived from one master secret, so nothing is stored
+// and every instance signs with the same key. Gate devices only ever receive the public half, so a
+// compromised scanner can verify codes but cannot mint them
+public class QrKeyDerivation implements QrKeyResolver {
+    
+    private final byte[] masterSecret;
+    
+    private final Map<Long, KeyPair> keyPairs = new ConcurrentHashMap<>();
+    
+    public QrKeyDerivation(String masterSecret) {
+        this.masterSecret = masterSecret.getBytes(StandardCharsets.UTF_8);
+        // The JDK's Ed25519 generator takes the private key straight from the supplied randomness; fail fast
+        // rather than sign with keys that differ per instance if a provider ever stops doing so
+        if (!Arrays.equals(derive(0).getPublic().getEncoded(), derive(0).getPublic().getEncoded())) {
+            throw new IllegalStateException("Ed25519 key derivation is not deterministic with this security provider");
+        }
+    }
+    
+    public PrivateKey privateKeyFor(long eventId) {
+        return keyPair(eventId).getPrivate();
+    }
+    
+    @Override
+    public PublicKey publicKeyFor(long eventId) {
+        return keyPair(eventId).getPublic();
+    }
+    
+    // X.509 SubjectPublicKeyInfo, base64url
+    public String encodedPublicKeyFor(long eventId) {
+        return QrCrypto.encode(publicKeyFor(eventId).getEncoded());
+    }
+    
+    private KeyPair keyPair(long eventId) {
+        return keyPairs.computeIfAbsent(eventId, this::derive);
+    }
+    
+    private KeyPair derive(long eventId) {
+        byte[] seed = QrCrypto.hmac(masterSecret, "qr-key|" + eventId);
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(QrCrypto.SIGNATURE_ALGORITHM);
+            generator.initialize(NamedParameterSpec.ED25519, new SeededRandom(seed));
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not available", e);
+        }
+    }
+    
+    private static final class SeededRandom extends SecureRandom {
+        
+        private final byte[] seed;
+        
+        SeededRandom(byte[] seed) {
+            this.seed = seed;
+        }
+        
+        @Override
+        public void nextBytes(byte[] bytes) {
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = seed[i % seed.length];
+            }
+        }
+    }
+}
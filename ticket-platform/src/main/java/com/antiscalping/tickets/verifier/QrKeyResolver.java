@@ -0,0 +1,9 @@
+package com.antiscalping.tickets.verifier;
+
+import java.security.PublicKey;
+
+public interface QrKeyResolver {
+    
+    // Returns null when no key is known for the event
+    PublicKey publicKeyFor(long eventId);
+}
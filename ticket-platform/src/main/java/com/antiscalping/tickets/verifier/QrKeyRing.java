@@ -0,0 +1,28 @@
+package com.antiscalping.tickets.verifier;
+
+import java.security.PublicKey;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Public keys downloaded to a gate device before doors open
+public class QrKeyRing implements QrKeyResolver {
+    
+    private final Map<Long, PublicKey> keys = new ConcurrentHashMap<>();
+    
+    public void put(long eventId, PublicKey key) {
+        keys.put(eventId, key);
+    }
+    
+    public void putEncoded(long eventId, String encodedKey) {
+        put(eventId, QrCrypto.decodePublicKey(encodedKey));
+    }
+    
+    public void removeEvent(long eventId) {
+        keys.remove(eventId);
+    }
+    
+    @Override
+    public PublicKey publicKeyFor(long eventId) {
+        return keys.get(eventId);
+    }
+}
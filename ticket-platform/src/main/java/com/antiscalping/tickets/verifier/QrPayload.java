@@ -0,0 +1,29 @@
+package com.antiscalping.tickets.verifier;
+
+public record QrPayload(long eventId, long ticketId, long keyEpoch, String seedTag, String signature) {
+    
+    public static final String VERSION = "T2";
+    
+    public String signedPart() {
+        return VERSION + "." + eventId + "." + ticketId + "." + keyEpoch + "." + seedTag;
+    }
+    
+    public String encode() {
+        return signedPart() + "." + signature;
+    }
+    
+    public static QrPayload parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        String[] parts = text.trim().split("\\.", -1);
+        if (parts.length != 6 || !VERSION.equals(parts[0]) || parts[4].isEmpty() || parts[5].isEmpty()) {
+            return null;
+        }
+        try {
+            return new QrPayload(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]), parts[4], parts[5]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.antiscalping.tickets.verifier;
+
+public class QrPayloadSigner {
+    
+    private final QrKeyDerivation keys;
+    
+    private final long rotationSeconds;
+    
+    public QrPayloadSigner(QrKeyDerivation keys, long rotationSeconds) {
+        this.keys = keys;
+        this.rotationSeconds = rotationSeconds;
+    }
+    
+    public long epochAt(long epochSeconds) {
+        return epochSeconds / rotationSeconds;
+    }
+    
+    // The epoch is part of the signed text, so a code stops verifying once it falls out of the accepted window
+    public QrPayload sign(long eventId, long ticketId, String qrSeed, long nowEpochSeconds) {
+        long epoch = epochAt(nowEpochSeconds);
+        QrPayload unsigned = new QrPayload(eventId, ticketId, epoch, seedTag(qrSeed), "");
+        return new QrPayload(eventId, ticketId, epoch, unsigned.seedTag(),
+            QrCrypto.signature(keys.privateKeyFor(eventId), unsigned.signedPart()));
+    }
+    
+    // Binds the payload to the ticket's current seed without putting the seed itself in the QR code
+    public static String seedTag(String qrSeed) {
+        return QrCrypto.seedTag(qrSeed);
+    }
+}
@@ -0,0 +1,61 @@
+package com.antiscalping.tickets.verifier;
+
+import java.security.PublicKey;
+
+// Verifies payloads entirely in memory; safe to share between gate threads. It cannot see seed changes,
+// so offline a code from before a transfer passes until its epoch leaves the accepted window; online
+// scans are also checked against the roster's seed tag (STALE_CODE)
+public class QrPayloadVerifier {
+    
+    private final QrKeyResolver keys;
+    
+    private final long rotationSeconds;
+    
+    private final int acceptedPastEpochs;
+    
+    public QrPayloadVerifier(QrKeyResolver keys, long rotationSeconds, int acceptedPastEpochs) {
+        this.keys = keys;
+        this.rotationSeconds = rotationSeconds;
+        this.acceptedPastEpochs = acceptedPastEpochs;
+    }
+    
+    public Result verify(String text, long nowEpochSeconds) {
+        return verify(text, null, nowEpochSeconds);
+    }
+    
+    public Result verify(String text, Long expectedEventId, long nowEpochSeconds) {
+        QrPayload payload = QrPayload.parse(text);
+        if (payload == null) {
+            return new Result(Status.MALFORMED, null);
+        }
+        if (expectedEventId != null && payload.eventId() != expectedEventId) {
+            return new Result(Status.WRONG_EVENT, payload);
+        }
+        
+        // One epoch of future skew is tolerated for devices with drifting clocks
+        long current = nowEpochSeconds / rotationSeconds;
+        if (payload.keyEpoch() < current - acceptedPastEpochs || payload.keyEpoch() > current + 1) {
+            return new Result(Status.EXPIRED, payload);
+        }
+        
+        PublicKey key = keys.publicKeyFor(payload.eventId());
+        if (key == null) {
+            return new Result(Status.UNKNOWN_KEY, payload);
+        }
+        if (!QrCrypto.signatureMatches(key, payload.signedPart(), payload.signature())) {
+            return new Result(Status.BAD_SIGNATURE, payload);
+        }
+        return new Result(Status.VALID, payload);
+    }
+    
+    public enum Status {
+        VALID, MALFORMED, WRONG_EVENT, EXPIRED, UNKNOWN_KEY, BAD_SIGNATURE
+    }
+    
+    public record Result(Status status, QrPayload payload) {
+        
+        public boolean valid() {
+            return status == Status.VALID;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+-- Trigram indexes for fuzzy, substring and prefix search over event names and venues
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Partial on ACTIVE, the only status search returns, to keep the indexes small
+CREATE INDEX IF NOT EXISTS idx_events_name_trgm ON events USING gin (name gin_trgm_ops) WHERE status = 'ACTIVE';
+CREATE INDEX IF NOT EXISTS idx_events_venue_trgm ON events USING gin (venue gin_trgm_ops) WHERE status = 'ACTIVE';
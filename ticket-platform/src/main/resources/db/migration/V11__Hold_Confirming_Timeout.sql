@@ -0,0 +1,4 @@
+-- When a hold entered CONFIRMING, so holds stranded there by a crash can be found and released
+ALTER TABLE ticket_holds ADD COLUMN IF NOT EXISTS confirming_since TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_hold_confirming_since ON ticket_holds(confirming_since) WHERE status = 'CONFIRMING';
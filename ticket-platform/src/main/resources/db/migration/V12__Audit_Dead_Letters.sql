@@ -0,0 +1,12 @@
+-- Audit events audit_logs rejected (e.g. a created_at outside every partition), kept for inspection and replay
+CREATE TABLE IF NOT EXISTS audit_dead_letters (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    action VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id BIGINT,
+    details TEXT,
+    created_at TIMESTAMP,
+    error TEXT,
+    failed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,8 @@
+-- Wallet pages are ordered by purchase time. created_at is when the ticket was minted as stock, which says
+-- nothing about when its owner bought it. Owned rows without a purchase time fall back to created_at
+UPDATE tickets SET purchased_at = created_at WHERE purchased_at IS NULL AND owner_id IS NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_tickets_owner_purchased ON tickets(owner_id, purchased_at DESC, id DESC);
+
+-- Superseded by idx_tickets_owner_purchased
+DROP INDEX IF EXISTS idx_tickets_owner_created;
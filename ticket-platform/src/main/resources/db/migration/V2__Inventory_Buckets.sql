@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS event_inventory_buckets (
+    event_id BIGINT NOT NULL REFERENCES events(id),
+    bucket INTEGER NOT NULL,
+    available INTEGER NOT NULL CHECK (available >= 0),
+    PRIMARY KEY (event_id, bucket)
+);
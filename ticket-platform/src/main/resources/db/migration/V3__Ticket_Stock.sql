@@ -0,0 +1,4 @@
+-- Pre-minted stock rows have no owner until they are claimed by a purchase
+ALTER TABLE tickets ALTER COLUMN owner_id DROP NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_tickets_unsold_stock ON tickets(event_id, id) WHERE status = 'UNSOLD';
@@ -0,0 +1,13 @@
+CREATE TABLE IF NOT EXISTS ticket_holds (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL REFERENCES events(id),
+    user_id BIGINT NOT NULL REFERENCES users(id),
+    quantity INTEGER NOT NULL,
+    status VARCHAR(50) NOT NULL DEFAULT 'ACTIVE',
+    expires_at TIMESTAMP NOT NULL,
+    payment_id BIGINT REFERENCES payments(id),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_hold_status_expires ON ticket_holds(status, expires_at);
@@ -0,0 +1,6 @@
+-- Hibernate allocates ids in blocks of 50 (pooled-lo) so inserts can be JDBC-batched
+ALTER SEQUENCE tickets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE audit_logs_id_seq INCREMENT BY 50;
+ALTER SEQUENCE pool_tickets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE ticket_transfers_id_seq INCREMENT BY 50;
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
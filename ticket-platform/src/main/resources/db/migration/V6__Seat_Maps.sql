@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS event_seat_rows (
+    id BIGSERIAL PRIMARY KEY,
+    event_id BIGINT NOT NULL REFERENCES events(id),
+    section VARCHAR(50) NOT NULL,
+    row_label VARCHAR(20) NOT NULL,
+    seat_count INTEGER NOT NULL CHECK (seat_count > 0),
+    rank INTEGER NOT NULL,
+    UNIQUE (event_id, section, row_label)
+);
+
+CREATE INDEX IF NOT EXISTS idx_seat_row_event ON event_seat_rows(event_id, rank);
+
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS section VARCHAR(50);
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS row_label VARCHAR(20);
+ALTER TABLE tickets ADD COLUMN IF NOT EXISTS seat_number INTEGER;
+
+-- A seat can be sold only once; released tickets keep their seat columns for history
+CREATE UNIQUE INDEX IF NOT EXISTS uq_ticket_seat ON tickets(event_id, section, row_label, seat_number)
+    WHERE seat_number IS NOT NULL AND status NOT IN ('UNSOLD', 'CANCELLED', 'REFUNDED');
@@ -0,0 +1,11 @@
+-- Audit events written inside business transactions when app.audit.mode=outbox;
+-- a relay moves them into audit_logs in batches, so this table stays small and unindexed
+CREATE TABLE IF NOT EXISTS audit_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT,
+    action VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id BIGINT,
+    details TEXT,
+    created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,51 @@
+-- audit_logs becomes range-partitioned by month on created_at. Queries bounded by time only touch
+-- the partitions they need, and retention detaches whole partitions instead of running DELETEs.
+-- AuditPartitionService keeps partitions created ahead of time and drops expired ones.
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+DROP INDEX IF EXISTS idx_user_id_audit;
+DROP INDEX IF EXISTS idx_action;
+DROP INDEX IF EXISTS idx_created_at_audit;
+
+-- The sequence outlives the old table; ids keep coming from it in blocks of 50
+ALTER SEQUENCE audit_logs_id_seq OWNED BY NONE;
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+    user_id BIGINT REFERENCES users(id),
+    action VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(100) NOT NULL,
+    entity_id BIGINT,
+    details TEXT,
+    ip_address VARCHAR(50),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+
+-- Each index ends in (created_at, id) to serve the newest-first keyset queries
+CREATE INDEX idx_user_id_audit ON audit_logs(user_id, created_at DESC, id DESC);
+CREATE INDEX idx_action ON audit_logs(action, created_at DESC, id DESC);
+CREATE INDEX idx_entity_audit ON audit_logs(entity_type, entity_id, created_at DESC, id DESC);
+CREATE INDEX idx_created_at_audit ON audit_logs(created_at);
+
+DO $$
+DECLARE
+    partition_start DATE;
+    last_start DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE;
+BEGIN
+    SELECT COALESCE(date_trunc('month', MIN(created_at))::DATE, date_trunc('month', CURRENT_DATE)::DATE)
+        INTO partition_start FROM audit_logs_unpartitioned;
+    WHILE partition_start <= last_start LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            'audit_logs_y' || to_char(partition_start, 'YYYY') || 'm' || to_char(partition_start, 'MM'),
+            partition_start, (partition_start + INTERVAL '1 month')::DATE);
+        partition_start := (partition_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, details, ip_address, created_at)
+SELECT id, user_id, action, entity_type, entity_id, details, ip_address, COALESCE(created_at, CURRENT_TIMESTAMP)
+FROM audit_logs_unpartitioned;
+
+DROP TABLE audit_logs_unpartitioned;
@@ -0,0 +1,9 @@
+-- Composite indexes matching each keyset listing's sort order, so a page is one index range scan
+CREATE INDEX IF NOT EXISTS idx_events_status_date ON events(status, event_date, id);
+CREATE INDEX IF NOT EXISTS idx_events_date ON events(event_date, id);
+CREATE INDEX IF NOT EXISTS idx_tickets_owner_created ON tickets(owner_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transfers_from_created ON ticket_transfers(from_user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_transfers_to_created ON ticket_transfers(to_user_id, created_at DESC, id DESC);
+
+-- Superseded by idx_tickets_owner_created
+DROP INDEX IF EXISTS idx_owner_id;
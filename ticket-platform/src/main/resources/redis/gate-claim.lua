@@ -0,0 +1,20 @@
+-- KEYS[1] = entry open marker, KEYS[2] = scanned set, KEYS[3] = revoked set, KEYS[4] = reissued seed tags
+-- ARGV[1] = ticket id, ARGV[2] = TTL in milliseconds
+-- ARGV[3] = seed tag on the scanned code, ARGV[4] = seed tag the caller's roster holds ('' for number scans)
+-- Returns 1 for the first scan, 0 when already scanned, -1 when revoked, -2 when entry is closed,
+-- -3 when the code predates a reissue
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+if redis.call('SISMEMBER', KEYS[3], ARGV[1]) == 1 then
+    return -1
+end
+if ARGV[3] ~= '' then
+    local current = redis.call('HGET', KEYS[4], ARGV[1]) or ARGV[4]
+    if current ~= ARGV[3] then
+        return -3
+    end
+end
+local added = redis.call('SADD', KEYS[2], ARGV[1])
+redis.call('PEXPIRE', KEYS[2], ARGV[2])
+return added
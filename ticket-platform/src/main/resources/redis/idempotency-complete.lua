@@ -0,0 +1,5 @@
+-- KEYS[1] = stored response hash, ARGV = fingerprint, status, content type, body, TTL in milliseconds
+-- Fields and expiry are set together so a response is never left behind without a TTL
+redis.call('HSET', KEYS[1], 'fingerprint', ARGV[1], 'status', ARGV[2], 'contentType', ARGV[3], 'body', ARGV[4])
+redis.call('PEXPIRE', KEYS[1], ARGV[5])
+return 1
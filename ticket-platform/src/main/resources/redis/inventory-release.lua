@@ -0,0 +1,6 @@
+-- KEYS[1] = inventory counter, ARGV[1] = quantity
+-- Returns the new count, or -2 when the counter is not loaded (it will be rebuilt from the database)
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return -2
+end
+return redis.call('INCRBY', KEYS[1], ARGV[1])
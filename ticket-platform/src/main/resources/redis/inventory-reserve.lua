@@ -0,0 +1,11 @@
+-- KEYS[1] = inventory counter, ARGV[1] = quantity
+-- Returns remaining count, -1 when sold out, -2 when the counter is not loaded
+local current = redis.call('GET', KEYS[1])
+if not current then
+    return -2
+end
+local quantity = tonumber(ARGV[1])
+if tonumber(current) < quantity then
+    return -1
+end
+return redis.call('DECRBY', KEYS[1], quantity)
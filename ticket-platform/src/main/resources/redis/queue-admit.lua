@@ -0,0 +1,9 @@
+-- KEYS[1] = waiting set, KEYS[2] = admitted set, ARGV[1] = count, ARGV[2] = admitted-until score
+-- Pops and admits in one step so a buyer is never dropped between leaving one set and joining the other
+local popped = redis.call('ZPOPMIN', KEYS[1], ARGV[1])
+local admitted = {}
+for i = 1, #popped, 2 do
+    redis.call('ZADD', KEYS[2], ARGV[2], popped[i])
+    admitted[#admitted + 1] = popped[i]
+end
+return admitted
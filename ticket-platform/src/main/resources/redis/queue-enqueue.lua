@@ -0,0 +1,8 @@
+-- KEYS[1] = sequence, KEYS[2] = waiting set, KEYS[3] = active events, ARGV[1] = member, ARGV[2] = event id
+-- Joining and marking the event active happen together, so queue-expire.lua can never retire an event
+-- between the two and strand the new buyer
+if not redis.call('ZSCORE', KEYS[2], ARGV[1]) then
+    redis.call('ZADD', KEYS[2], 'NX', redis.call('INCR', KEYS[1]), ARGV[1])
+end
+redis.call('SADD', KEYS[3], ARGV[2])
+return redis.call('ZRANK', KEYS[2], ARGV[1])
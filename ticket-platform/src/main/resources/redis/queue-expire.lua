@@ -0,0 +1,8 @@
+-- KEYS[1] = admitted set, KEYS[2] = waiting set, KEYS[3] = active events, ARGV[1] = now, ARGV[2] = event id
+-- Drops lapsed admissions and retires the event only if nobody is waiting or admitted at that instant
+redis.call('ZREMRANGEBYSCORE', KEYS[1], 0, ARGV[1])
+if redis.call('ZCARD', KEYS[1]) == 0 and redis.call('ZCARD', KEYS[2]) == 0 then
+    redis.call('SREM', KEYS[3], ARGV[2])
+    return 1
+end
+return 0
@@ -0,0 +1,87 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs in its own surefire execution with a small heap (see pom.xml). The export writes several times
+// more bytes than that heap can hold, so it only passes if rows stream from the cursor to the output
+@Import(AuditExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditExportMemoryTest extends PostgresTest {
+    
+    private static final long ROWS = Long.getLong("audit.export.rows", 10_000_000L);
+    
+    // All rows land in the current month's partition
+    private static final String SEED_SQL =
+        "INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, details, ip_address, created_at) " +
+        "SELECT n, ?, 'TICKET_PURCHASED', 'TICKET', n, 'Purchased ticket ' || n, '10.0.0.1', " +
+        "date_trunc('month', CURRENT_TIMESTAMP) + (n % 86400) * INTERVAL '1 second' " +
+        "FROM generate_series(1, ?) AS n";
+    
+    @Autowired
+    private AuditExportService auditExportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("TRUNCATE audit_logs");
+        jdbcTemplate.update("DELETE FROM users WHERE email = 'export-owner@example.com'");
+    }
+    
+    @Test
+    void exportsMoreRowsThanFitInTheHeap() throws IOException {
+        Long userId = jdbcTemplate.queryForObject(
+            "INSERT INTO users (email, password_hash, status) VALUES ('export-owner@example.com', 'hash', 'ACTIVE') RETURNING id",
+            Long.class);
+        jdbcTemplate.update(SEED_SQL, userId, ROWS);
+        
+        CountingOutputStream out = new CountingOutputStream();
+        long exported = auditExportService.exportUserLogs(userId, null, null, AuditExportService.Format.NDJSON, out);
+        
+        assertThat(exported).isEqualTo(ROWS);
+        assertThat(out.lines).isEqualTo(ROWS);
+        assertThat(out.bytes)
+            .as("export size must exceed the heap for this test to prove streaming; run with a small -Xmx")
+            .isGreaterThan(Runtime.getRuntime().maxMemory());
+    }
+    
+    private static class CountingOutputStream extends OutputStream {
+        
+        private long bytes;
+        
+        private long lines;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
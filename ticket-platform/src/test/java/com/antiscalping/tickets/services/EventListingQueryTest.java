@@ -0,0 +1,127 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.CursorPageDto;
+import com.antiscalping.tickets.dto.EventDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.Ticket;
+import com.antiscalping.tickets.entities.User;
+import com.antiscalping.tickets.support.PostgresTest;
+import com.antiscalping.tickets.support.SqlStatementCounter;
+import com.antiscalping.tickets.utils.KeysetPaging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// A listing page costs one query however many events it holds and however many tickets they sold
+@Import({EventService.class, KeysetPaging.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class EventListingQueryTest extends PostgresTest {
+    
+    private static final int EVENTS = 5;
+    
+    private static final int TICKETS_PER_EVENT = 3;
+    
+    @Autowired
+    private EventService eventService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private SqlStatementCounter statements;
+    
+    @MockBean
+    private EventCatalogCache eventCatalogCache;
+    
+    @MockBean
+    private InventoryService inventoryService;
+    
+    @MockBean
+    private AuditService auditService;
+    
+    @MockBean
+    private TicketStockService ticketStockService;
+    
+    @MockBean
+    private EventSearchIndex eventSearchIndex;
+    
+    @BeforeEach
+    void seed() {
+        // Every read goes straight to the loader, so each page below really reaches the database
+        when(eventCatalogCache.get(anyString(), anyString(), any(), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+        
+        User owner = entityManager.persist(User.builder()
+            .email("listing-owner@example.com")
+            .passwordHash("hash")
+            .status(User.UserStatus.ACTIVE)
+            .build());
+        for (int e = 0; e < EVENTS; e++) {
+            Event event = entityManager.persist(Event.builder()
+                .name("Listing " + e)
+                .eventDate(LocalDateTime.now().plusDays(e + 1))
+                .venue("Hall " + e)
+                .totalCapacity(100)
+                .availableTickets(100 - TICKETS_PER_EVENT)
+                .ticketPrice(25.0)
+                .build());
+            for (int t = 0; t < TICKETS_PER_EVENT; t++) {
+                entityManager.persist(Ticket.builder()
+                    .event(event)
+                    .user(owner)
+                    .status(Ticket.TicketStatus.AVAILABLE)
+                    .ticketNumber("LISTING-" + e + "-" + t)
+                    .qrSeed("listing-seed-" + e + "-" + t)
+                    .purchasedAt(LocalDateTime.now())
+                    .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statements.reset();
+    }
+    
+    @Test
+    void firstPageOfActiveEventsIsOneQuery() {
+        CursorPageDto<EventDto> page = eventService.getAllEvents(null, null);
+        
+        assertThat(page.getItems()).hasSize(EVENTS);
+        assertThat(page.getItems()).allSatisfy(event -> assertThat(event.getSoldTickets()).isEqualTo(TICKETS_PER_EVENT));
+        assertThat(statements.executions()).hasSize(1);
+        assertThat(statements.count("from tickets")).isZero();
+        verifyNoInteractions(inventoryService);
+    }
+    
+    @Test
+    void everyKeysetPageIsOneQuery() {
+        String cursor = null;
+        int seen = 0;
+        int pages = 0;
+        do {
+            statements.reset();
+            CursorPageDto<EventDto> page = eventService.getUpcomingEvents(cursor, 2);
+            
+            assertThat(statements.executions()).hasSize(1);
+            seen += page.getItems().size();
+            pages++;
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertThat(seen).isEqualTo(EVENTS);
+        assertThat(pages).isEqualTo(3);
+        verifyNoInteractions(inventoryService);
+    }
+}
@@ -0,0 +1,153 @@
+package com.antiscalping.tickets.services;
+
+import com.antiscalping.tickets.dto.TicketDto;
+import com.antiscalping.tickets.dto.TicketPurchaseDto;
+import com.antiscalping.tickets.entities.Event;
+import com.antiscalping.tickets.entities.User;
+import com.antiscalping.tickets.repositories.EventRepository;
+import com.antiscalping.tickets.repositories.UserRepository;
+import com.antiscalping.tickets.support.PostgresTest;
+import com.antiscalping.tickets.support.SqlStatementCounter;
+import com.antiscalping.tickets.utils.KeysetPaging;
+import com.antiscalping.tickets.utils.SecurityUtils;
+import com.antiscalping.tickets.utils.TicketNumberGenerator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+// A purchase from minted stock costs one locking claim query, one batched UPDATE for the claimed rows
+// and one batched audit insert, however many tickets it carries. purchaseTickets runs its own
+// transaction, so this test commits its data instead of rolling back a test transaction
+@Import({TicketService.class, AuditService.class, AuditWriter.class, TicketStockService.class,
+    TicketNumberGenerator.class, TicketPurchaseBatchTest.Metrics.class})
+@TestPropertySource(properties = "app.audit.mode=outbox")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TicketPurchaseBatchTest extends PostgresTest {
+    
+    private static final int STOCK = 50;
+    
+    private static final int QUANTITY = 10;
+    
+    // spring.jpa.properties.hibernate.jdbc.batch_size
+    private static final int JDBC_BATCH_SIZE = 20;
+    
+    @Autowired
+    private TicketService ticketService;
+    
+    @Autowired
+    private TicketStockService ticketStockService;
+    
+    @Autowired
+    private EventRepository eventRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SqlStatementCounter statements;
+    
+    @MockBean
+    private InventoryService inventoryService;
+    
+    @MockBean
+    private SeatMapService seatMapService;
+    
+    @MockBean
+    private GateValidationService gateValidationService;
+    
+    @MockBean
+    private SecurityUtils securityUtils;
+    
+    @MockBean
+    private KeysetPaging keysetPaging;
+    
+    private User buyer;
+    
+    private Event event;
+    
+    @BeforeEach
+    void mintStock() {
+        when(inventoryService.reserve(anyLong(), anyInt())).thenReturn(true);
+        when(securityUtils.generateQRSeed()).thenAnswer(invocation -> UUID.randomUUID().toString());
+        
+        buyer = userRepository.save(User.builder()
+            .email("purchase-batch@example.com")
+            .passwordHash("hash")
+            .status(User.UserStatus.ACTIVE)
+            .build());
+        event = eventRepository.save(Event.builder()
+            .name("Purchase batch")
+            .eventDate(LocalDateTime.now().plusDays(30))
+            .venue("Arena")
+            .totalCapacity(STOCK)
+            .availableTickets(STOCK)
+            .ticketPrice(50.0)
+            .build());
+        ticketStockService.mintStock(event.getId(), STOCK);
+        statements.reset();
+    }
+    
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM audit_outbox WHERE user_id = ?", buyer.getId());
+        jdbcTemplate.update("DELETE FROM tickets WHERE event_id = ?", event.getId());
+        eventRepository.deleteById(event.getId());
+        userRepository.deleteById(buyer.getId());
+    }
+    
+    @Test
+    void issuesFromStockWithOneClaimAndBatchedWrites() {
+        List<TicketDto> tickets = ticketService.purchaseTickets(buyer.getId(), new TicketPurchaseDto(event.getId(), QUANTITY));
+        
+        assertThat(tickets).hasSize(QUANTITY);
+        
+        assertThat(statements.count("for update skip locked")).isEqualTo(1);
+        // Claimed stock is updated in place; nothing is issued on demand
+        assertThat(statements.count("insert into tickets")).isZero();
+        assertThat(statements.singles("update tickets")).isZero();
+        assertThat(statements.batches("update tickets")).isEqualTo(ceilDiv(QUANTITY, JDBC_BATCH_SIZE));
+        assertThat(statements.batchedRows("update tickets")).isEqualTo(QUANTITY);
+        assertThat(statements.singles("insert into audit_outbox")).isZero();
+        assertThat(statements.batches("insert into audit_outbox")).isEqualTo(1);
+        assertThat(statements.batchedRows("insert into audit_outbox")).isEqualTo(QUANTITY);
+        
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM tickets WHERE event_id = ? AND user_id = ? AND status = 'AVAILABLE'",
+            Long.class, event.getId(), buyer.getId())).isEqualTo(QUANTITY);
+    }
+    
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+    
+    @TestConfiguration
+    static class Metrics {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
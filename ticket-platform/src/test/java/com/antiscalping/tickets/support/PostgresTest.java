@@ -0,0 +1,34 @@
+package com.antiscalping.tickets.support;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+// JPA slice against a real Postgres migrated by Flyway; partitioned tables, sequences and pg_trgm
+// all behave as in production. One container is shared by every test class in the JVM; without a
+// Docker daemon the classes are skipped rather than failed
+@DataJpaTest
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SqlStatementCounter.Config.class)
+public abstract class PostgresTest {
+    
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    static {
+        POSTGRES.start();
+    }
+    
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        // Flyway owns the schema; these tests are about the statements sent, not the mapping
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+}
@@ -0,0 +1,166 @@
+package com.antiscalping.tickets.support;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+// Records every round trip the application makes through the DataSource: a single execute, or one
+// executeBatch with the number of rows it carried. Matching is on a lower-cased SQL fragment
+public class SqlStatementCounter {
+    
+    private final Queue<Execution> executions = new ConcurrentLinkedQueue<>();
+    
+    public void reset() {
+        executions.clear();
+    }
+    
+    public List<Execution> executions() {
+        return List.copyOf(executions);
+    }
+    
+    public long count(String fragment) {
+        return matching(fragment).count();
+    }
+    
+    public long singles(String fragment) {
+        return matching(fragment).filter(execution -> !execution.batched()).count();
+    }
+    
+    public long batches(String fragment) {
+        return matching(fragment).filter(Execution::batched).count();
+    }
+    
+    public long batchedRows(String fragment) {
+        return matching(fragment).mapToLong(Execution::batchRows).sum();
+    }
+    
+    private Stream<Execution> matching(String fragment) {
+        String needle = fragment.toLowerCase(Locale.ROOT);
+        return executions.stream().filter(execution -> execution.sql() != null && execution.sql().toLowerCase(Locale.ROOT).contains(needle));
+    }
+    
+    DataSource wrap(DataSource dataSource) {
+        return new CountingDataSource(dataSource);
+    }
+    
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().startsWith("prepare")) {
+                return proxy(method.getReturnType(), result, new StatementHandler((String) args[0]));
+            }
+            if (method.getName().equals("createStatement")) {
+                return proxy(method.getReturnType(), result, new StatementHandler(null));
+            }
+            return result;
+        });
+    }
+    
+    private class StatementHandler implements Handler {
+        
+        private String sql;
+        
+        private int pendingRows;
+        
+        StatementHandler(String sql) {
+            this.sql = sql;
+        }
+        
+        @Override
+        public Object handle(Object target, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("addBatch")) {
+                if (args != null && args.length == 1) {
+                    sql = (String) args[0];
+                }
+                pendingRows++;
+            } else if (name.equals("clearBatch")) {
+                pendingRows = 0;
+            } else if (name.equals("executeBatch") || name.equals("executeLargeBatch")) {
+                executions.add(new Execution(sql, pendingRows));
+                pendingRows = 0;
+            } else if (name.startsWith("execute")) {
+                executions.add(new Execution(args != null && args.length > 0 ? (String) args[0] : sql, 0));
+            }
+            return invoke(target, method, args);
+        }
+    }
+    
+    private class CountingDataSource extends DelegatingDataSource {
+        
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+        
+        @Override
+        public Connection getConnection() throws SQLException {
+            return wrap(super.getConnection());
+        }
+        
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return wrap(super.getConnection(username, password));
+        }
+    }
+    
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(), new Class<?>[] {type}, invocation);
+    }
+    
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+    
+    public record Execution(String sql, int batchRows) {
+        
+        public boolean batched() {
+            return batchRows > 0;
+        }
+    }
+    
+    @TestConfiguration
+    public static class Config {
+        
+        @Bean
+        public SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+        
+        @Bean
+        public static BeanPostProcessor countingDataSource(ObjectProvider<SqlStatementCounter> counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !(bean instanceof CountingDataSource)) {
+                        return counter.getObject().wrap(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}